@@ -0,0 +1,101 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga mínimo (modelo cerrado): N clientes concurrentes repiten
+ * GET sobre las URLs dadas durante el tiempo indicado y al final se imprime
+ * el throughput y los percentiles de latencia.
+ *
+ * Uso: java scripts/CargaHttp.java <clientes> <segundos> <url> [<url> ...]
+ */
+public class CargaHttp {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Uso: java scripts/CargaHttp.java <clientes> <segundos> <url> [<url> ...]");
+            System.exit(1);
+        }
+        int clientes = Integer.parseInt(args[0]);
+        long duracionNanos = Duration.ofSeconds(Long.parseLong(args[1])).toNanos();
+        List<URI> urls = Arrays.stream(args, 2, args.length).map(URI::create).toList();
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<long[]> latenciasPorCliente = new ArrayList<>();
+        for (int c = 0; c < clientes; c++) {
+            latenciasPorCliente.add(null);
+        }
+        int[] cantidades = new int[clientes];
+        AtomicLong errores = new AtomicLong();
+        CountDownLatch fin = new CountDownLatch(clientes);
+        long inicio = System.nanoTime();
+
+        for (int c = 0; c < clientes; c++) {
+            int indice = c;
+            Thread hilo = new Thread(() -> {
+                long[] latencias = new long[1024];
+                int n = 0;
+                try {
+                    while (System.nanoTime() - inicio < duracionNanos) {
+                        URI url = urls.get((indice + n) % urls.size());
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = cliente.send(
+                                    HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() >= 400) {
+                                errores.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errores.incrementAndGet();
+                        }
+                        if (n == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, n * 2);
+                        }
+                        latencias[n++] = System.nanoTime() - t0;
+                    }
+                } finally {
+                    latenciasPorCliente.set(indice, latencias);
+                    cantidades[indice] = n;
+                    fin.countDown();
+                }
+            });
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+        fin.await();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        int total = Arrays.stream(cantidades).sum();
+        long[] todas = new long[total];
+        int pos = 0;
+        for (int c = 0; c < clientes; c++) {
+            System.arraycopy(latenciasPorCliente.get(c), 0, todas, pos, cantidades[c]);
+            pos += cantidades[c];
+        }
+        Arrays.sort(todas);
+
+        System.out.printf("clientes=%d peticiones=%d errores=%d req/s=%.0f p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+                clientes, total, errores.get(), total / segundos,
+                percentil(todas, 0.50), percentil(todas, 0.90), percentil(todas, 0.99), percentil(todas, 1.0));
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int i = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(i, ordenadas.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,107 @@
+#!/usr/bin/env bash
+# Benchmark de arranque: tiempo hasta la primera respuesta (time-to-first-request)
+# y el "Started ... in X seconds" de Spring, para varias formas de arrancar.
+#
+# Variantes:
+#   mem          H2 en memoria con create-drop + data.sql (configuración base)
+#   persistente  H2 en archivo con Flyway, sembrada con <filas> productos
+#   lazy         persistente + spring.main.lazy-initialization=true
+#   cds          persistente + archivo CDS (Class Data Sharing) entrenado con spring.context.exit=onRefresh
+#   aot          persistente + código AOT de Spring (requiere el jar compilado con mvn -Paot)
+#
+# Uso: scripts/arranque.sh [-n repeticiones] [-f filas] [variante ...]
+set -euo pipefail
+
+REPETICIONES=3
+FILAS=100000
+while getopts "n:f:" opcion; do
+    case $opcion in
+        n) REPETICIONES=$OPTARG ;;
+        f) FILAS=$OPTARG ;;
+        *) exit 1 ;;
+    esac
+done
+shift $((OPTIND - 1))
+[[ $# -gt 0 ]] || set -- mem persistente lazy cds
+
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=$(ls target/demo-*.jar 2> /dev/null | head -1)
+[[ -n "$JAR" ]] || { echo "Falta el jar: mvn -DskipTests package (o mvn -Paot -DskipTests package)" >&2; exit 1; }
+
+TRABAJO=target/arranque
+APP=$TRABAJO/app
+DATOS=$(pwd)/$TRABAJO/datos
+URL=http://localhost:8080/api/productos/resumen?size=1
+COMUNES=(--spring.jpa.show-sql=false --logging.level.root=WARN)
+PERSISTENTE=(--spring.profiles.active=persistente --productos.datos.directorio="$DATOS")
+
+# Jar extraído (recomendado para CDS: clases en jars normales en lugar de anidados)
+rm -rf "$TRABAJO"
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$APP" > /dev/null
+APP_JAR=$(ls "$APP"/demo-*.jar)
+
+esperar() {
+    local pid=$1
+    until curl -sf "$URL" > /dev/null; do
+        kill -0 "$pid" 2> /dev/null || { echo "La aplicación terminó antes de responder" >&2; exit 1; }
+        sleep 0.05
+    done
+}
+
+# Base persistente: la primera ejecución aplica las migraciones; después se agregan las filas de prueba
+echo "Preparando base persistente con $FILAS productos..."
+"$JAVA" -jar "$APP_JAR" "${COMUNES[@]}" "${PERSISTENTE[@]}" > /dev/null 2>&1 &
+pid=$!
+trap "kill $pid 2> /dev/null || true" EXIT
+esperar "$pid"
+kill "$pid"; wait "$pid" 2> /dev/null || true
+
+"$JAVA" -cp "$(ls "$APP"/lib/h2-*.jar)" org.h2.tools.Shell -url "jdbc:h2:file:$DATOS/productos" -user sa \
+    -sql "INSERT INTO productos (id, nombre, nombre_normalizado, descripcion, precio, stock, fecha_creacion,
+              fecha_actualizacion, activo, version)
+          SELECT X, 'Manga de prueba ' || X, 'manga de prueba ' || X, 'Descripción del manga de prueba ' || X,
+                 5 + MOD(X, 15), MOD(X, 120), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, MOD(X, 10) <> 0, 0
+          FROM SYSTEM_RANGE(1000, $((1000 + FILAS - 1)));
+          ALTER SEQUENCE productos_seq RESTART WITH $((1000 + FILAS + 50));" > /dev/null
+
+# Entrenamiento CDS: arranca hasta refrescar el contexto y vuelca las clases cargadas
+if [[ " $* " == *" cds "* ]]; then
+    echo "Generando archivo CDS..."
+    "$JAVA" -XX:ArchiveClassesAtExit="$TRABAJO/app.jsa" -Dspring.context.exit=onRefresh \
+        -jar "$APP_JAR" "${COMUNES[@]}" "${PERSISTENTE[@]}" > /dev/null 2>&1
+fi
+
+medir() {
+    local variante=$1 jvm=() app=("${COMUNES[@]}")
+    case $variante in
+        mem) ;;
+        persistente) app+=("${PERSISTENTE[@]}") ;;
+        lazy) app+=("${PERSISTENTE[@]}" --spring.main.lazy-initialization=true) ;;
+        cds) jvm=(-XX:SharedArchiveFile="$TRABAJO/app.jsa"); app+=("${PERSISTENTE[@]}") ;;
+        aot) jvm=(-Dspring.aot.enabled=true); app+=("${PERSISTENTE[@]}") ;;
+        *) echo "Variante desconocida: $variante" >&2; exit 1 ;;
+    esac
+
+    local total_ttfr=0 total_started=0
+    for ((i = 1; i <= REPETICIONES; i++)); do
+        local log=$TRABAJO/$variante-$i.log inicio fin started
+        inicio=$(date +%s%N)
+        "$JAVA" "${jvm[@]}" -jar "$APP_JAR" "${app[@]}" --logging.level.com.francisco=INFO > "$log" 2>&1 &
+        pid=$!
+        esperar "$pid"
+        fin=$(date +%s%N)
+        kill "$pid"; wait "$pid" 2> /dev/null || true
+
+        started=$(grep -o 'Started DemoApplication in [0-9.]*' "$log" | grep -o '[0-9.]*$' || echo 0)
+        total_ttfr=$((total_ttfr + (fin - inicio) / 1000000))
+        total_started=$(awk -v a="$total_started" -v b="$started" 'BEGIN { print a + b }')
+    done
+
+    printf "%-12s primera respuesta=%6d ms   Started in=%6.2f s   (media de %d)\n" "$variante" \
+        $((total_ttfr / REPETICIONES)) "$(awk -v t="$total_started" -v n="$REPETICIONES" 'BEGIN { print t / n }')" \
+        "$REPETICIONES"
+}
+
+for variante in "$@"; do
+    medir "$variante"
+done
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Prueba de carga local reproducible: arranca el jar con cada combinación de
+# perfiles indicada, calienta y mide la misma mezcla de lecturas con
+# scripts/CargaHttp.java. "default" es la configuración base, sin perfiles;
+# "reactivo" es la API WebFlux + R2DBC (jar del perfil Maven reactivo).
+# Además del resultado de la carga se informa la memoria residente (RSS) del
+# proceso en reposo y durante la medición, y sus hilos.
+#
+# Uso: scripts/carga.sh [-c clientes] [-s segundos] perfil [perfil ...]
+#   scripts/carga.sh default prod              # configuración base frente al perfil prod
+#   scripts/carga.sh prod prod,virtual         # hilos de plataforma frente a virtuales (Java 21)
+#   scripts/carga.sh -c 1000 prod reactivo     # servlet/JPA frente a WebFlux/R2DBC
+set -euo pipefail
+
+CLIENTES=200
+SEGUNDOS=30
+while getopts "c:s:" opcion; do
+    case $opcion in
+        c) CLIENTES=$OPTARG ;;
+        s) SEGUNDOS=$OPTARG ;;
+        *) exit 1 ;;
+    esac
+done
+shift $((OPTIND - 1))
+[[ $# -gt 0 ]] || set -- default prod
+
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+BASE=http://localhost:8080/api/productos
+
+# Lecturas que no se sirven desde las cachés: cada petición toma una conexión a la BD.
+# Frente a la API reactiva solo se usan los endpoints que tienen las dos
+if [[ " $* " == *" reactivo "* ]]; then
+    URLS=("$BASE?page=6" "$BASE/stock-bajo?stockMinimo=50" "$BASE/export")
+else
+    URLS=("$BASE?page=6" "$BASE/resumen?page=1" "$BASE/stock-bajo?stockMinimo=50"
+          "$BASE/cursor?size=20" "$BASE/search?q=vol" "$BASE/changes")
+fi
+
+# RSS en MB e hilos del proceso (Linux)
+memoria() {
+    awk '/^VmRSS/ { rss = $2 } /^Threads/ { hilos = $2 } END { printf "%d %d", rss / 1024, hilos }' "/proc/$1/status"
+}
+
+ejecutar() {
+    # Sin límites de tasa: todos los clientes comparten IP y se mediría el 429
+    local perfiles=$1 jar argumentos=(--productos.limites.enabled=false)
+    if [[ "$perfiles" == reactivo ]]; then
+        jar=$(ls target/demo-reactivo-*.jar 2> /dev/null | head -1)
+        [[ -n "$jar" ]] || { echo "Falta el jar: mvn -Preactivo -DskipTests package" >&2; exit 1; }
+    else
+        jar=$(ls target/demo-[0-9]*.jar 2> /dev/null | head -1)
+        [[ -n "$jar" ]] || { echo "Falta el jar: mvn -DskipTests package" >&2; exit 1; }
+        [[ "$perfiles" == default ]] || argumentos+=(--spring.profiles.active="$perfiles")
+    fi
+
+    "$JAVA" -jar "$jar" "${argumentos[@]}" > /dev/null 2>&1 &
+    local pid=$!
+    trap "kill $pid 2> /dev/null" EXIT
+    until curl -sf "$BASE?page=0" > /dev/null; do sleep 0.5; done
+    local reposo carga
+    reposo=($(memoria $pid))
+
+    # Calentamiento, luego medición; la memoria con carga se toma a mitad de la medición
+    "$JAVA" scripts/CargaHttp.java "$CLIENTES" 10 "${URLS[@]}" > /dev/null
+    (sleep $((SEGUNDOS / 2)); memoria $pid > /tmp/carga-memoria.$pid) &
+    local resultado
+    resultado=$("$JAVA" scripts/CargaHttp.java "$CLIENTES" "$SEGUNDOS" "${URLS[@]}")
+    carga=($(cat /tmp/carga-memoria.$pid))
+    rm -f /tmp/carga-memoria.$pid
+    echo "$perfiles: $resultado"
+    echo "$perfiles: rss reposo=${reposo[0]}MB carga=${carga[0]}MB" \
+        "($(( (carga[0] - reposo[0]) * 1024 / CLIENTES ))KB/cliente) hilos reposo=${reposo[1]} carga=${carga[1]}"
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+for perfiles in "$@"; do
+    ejecutar "$perfiles"
+done
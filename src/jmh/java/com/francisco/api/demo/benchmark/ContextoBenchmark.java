@@ -0,0 +1,89 @@
+package com.francisco.api.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.francisco.api.demo.DemoApplication;
+import com.francisco.api.demo.service.memoria.IndiceBusqueda;
+import com.francisco.api.demo.service.memoria.IndiceStockBajo;
+
+/**
+ * Arranca la aplicación sin servidor web sobre una H2 en memoria y la llena con
+ * la cantidad de filas pedida (además de los 20 productos de data.sql).
+ */
+final class ContextoBenchmark {
+
+    static final int FILAS_INICIALES = 20;
+    private static final int LOTE = 5_000;
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(int filas) {
+        ConfigurableApplicationContext contexto = arrancar(WebApplicationType.NONE);
+
+        poblar(contexto.getBean(JdbcTemplate.class), filas);
+
+        // Los índices en memoria se cargaron al arrancar; se recargan con las filas nuevas
+        contexto.getBean(IndiceStockBajo.class).cargar();
+        contexto.getBean(IndiceBusqueda.class).afterSingletonsInstantiated();
+        return contexto;
+    }
+
+    /**
+     * Con la capa web (para MockMvc), solo los datos de data.sql. El servidor
+     * escucha en un puerto libre, pero las peticiones no pasan por la red
+     */
+    static ConfigurableApplicationContext iniciarWeb(String... argumentos) {
+        String[] todos = new String[argumentos.length + 1];
+        todos[0] = "--server.port=0";
+        System.arraycopy(argumentos, 0, todos, 1, argumentos.length);
+        return arrancar(WebApplicationType.SERVLET, todos);
+    }
+
+    private static ConfigurableApplicationContext arrancar(WebApplicationType tipo, String... argumentos) {
+        // Como argumentos de línea de comandos para que tengan prioridad sobre application.properties
+        List<String> todos = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN"));
+        todos.addAll(List.of(argumentos));
+
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .web(tipo)
+                .run(todos.toArray(String[]::new));
+    }
+
+    private static void poblar(JdbcTemplate jdbc, int filas) {
+        String sql = "INSERT INTO productos (id, nombre, nombre_normalizado, descripcion, precio, stock, "
+                + "fecha_creacion, fecha_actualizacion, activo, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> lote = new ArrayList<>(LOTE);
+        for (long id = FILAS_INICIALES + 1; id <= FILAS_INICIALES + filas; id++) {
+            String nombre = "Manga de prueba " + id + " Vol. " + (id % 40 + 1);
+            lote.add(new Object[] {
+                id, nombre, nombre.toLowerCase(), "Descripción del manga de prueba número " + id,
+                BigDecimal.valueOf(500 + id % 1500, 2), (int) (id % 120), ahora, ahora, id % 10 != 0
+            });
+            if (lote.size() == LOTE) {
+                jdbc.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbc.batchUpdate(sql, lote);
+        }
+        jdbc.execute("ALTER SEQUENCE productos_seq RESTART WITH " + (FILAS_INICIALES + filas + 1));
+    }
+}
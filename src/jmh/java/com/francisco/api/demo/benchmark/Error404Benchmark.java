@@ -0,0 +1,141 @@
+package com.francisco.api.demo.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.WebRequest;
+
+import com.francisco.api.demo.exception.ErrorResponse;
+import com.francisco.api.demo.exception.ProductoNotFoundException;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.service.ProductoService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * GET /api/productos/{id} de un id que no existe, de punta a punta con MockMvc
+ * (DispatcherServlet, caché, servicio, GlobalExceptionHandler y JSON) pero sin
+ * red. Los ids se repiten, como los de un bot que recorre ids. inexistentesTtl
+ * = 0s desactiva la caché negativa. productoInexistenteConTraza es la ruta de
+ * antes: una RuntimeException común, con traza, y la ruta tomada de
+ * getDescription()
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 10)
+@Measurement(iterations = 10, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class Error404Benchmark {
+
+    private static final long PRIMER_ID_INEXISTENTE = 1_000_000;
+
+    @Param({"30s", "0s"})
+    private String inexistentesTtl;
+
+    private ConfigurableApplicationContext contexto;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciarWeb(
+                "--productos.inexistentes.ttl=" + inexistentesTtl,
+                "--productos.limites.enabled=false");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int productoInexistente() throws Exception {
+        long id = PRIMER_ID_INEXISTENTE + ThreadLocalRandom.current().nextInt(1_000);
+        return mockMvc.perform(get("/api/productos/{id}", id))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+
+    @Benchmark
+    public int productoInexistenteConTraza() throws Exception {
+        long id = PRIMER_ID_INEXISTENTE + ThreadLocalRandom.current().nextInt(1_000);
+        return mockMvc.perform(get(RutaConTraza.RUTA, id))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+
+    @Benchmark
+    public int productoInexistenteProblemDetail() throws Exception {
+        long id = PRIMER_ID_INEXISTENTE + ThreadLocalRandom.current().nextInt(1_000);
+        return mockMvc.perform(get("/api/productos/{id}", id).header("Accept", "application/problem+json"))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+
+    /**
+     * Misma búsqueda que GET /api/productos/{id}, pero el fallo se informa como
+     * antes de quitar la traza. Lo registra el escaneo de componentes: el
+     * paquete del benchmark está bajo el de DemoApplication
+     */
+    @RestController
+    @RequiredArgsConstructor
+    static class RutaConTraza {
+
+        static final String RUTA = "/benchmark/con-traza/productos/{id}";
+
+        private final ProductoService productoService;
+
+        @GetMapping(RUTA)
+        public Producto obtener(@PathVariable Long id) {
+            try {
+                return productoService.obtenerPorId(id);
+            } catch (ProductoNotFoundException e) {
+                throw new ProductoNoEncontradoConTraza(e.getMessage());
+            }
+        }
+
+        @ExceptionHandler(ProductoNoEncontradoConTraza.class)
+        public ResponseEntity<ErrorResponse> noEncontrado(ProductoNoEncontradoConTraza ex, WebRequest request) {
+            ErrorResponse error = new ErrorResponse(LocalDateTime.now(), HttpStatus.NOT_FOUND.value(),
+                    "Not Found", ex.getMessage(), request.getDescription(false));
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    static class ProductoNoEncontradoConTraza extends RuntimeException {
+
+        ProductoNoEncontradoConTraza(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.francisco.api.demo.benchmark;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.service.impl.ProductoParcheador;
+
+/**
+ * Compara el PATCH por reflexión (implementación anterior, copiada aquí como
+ * referencia) con la tabla de setters de ProductoParcheador
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatchBenchmark {
+
+    private final Map<String, Object> campos = Map.of("precio", 12.5, "stock", 7, "activo", true);
+    private final ProductoParcheador parcheador = new ProductoParcheador();
+    private final Producto producto = new Producto();
+
+    @Benchmark
+    public Producto reflexion() throws ReflectiveOperationException {
+        for (Map.Entry<String, Object> entrada : campos.entrySet()) {
+            Field field = Producto.class.getDeclaredField(entrada.getKey());
+            field.setAccessible(true);
+            field.set(producto, convertirValor(entrada.getKey(), entrada.getValue()));
+        }
+        return producto;
+    }
+
+    @Benchmark
+    public Producto tablaDeSetters() {
+        parcheador.aplicarCampos(producto, campos);
+        return producto;
+    }
+
+    private static Object convertirValor(String campo, Object valor) {
+        return switch (campo) {
+            case "precio" -> valor instanceof Number
+                    ? new BigDecimal(valor.toString())
+                    : new BigDecimal((String) valor);
+            case "stock" -> valor instanceof Number number
+                    ? number.intValue()
+                    : Integer.valueOf((String) valor);
+            case "activo" -> valor instanceof Boolean
+                    ? valor
+                    : Boolean.valueOf((String) valor);
+            case "nombre", "descripcion" -> valor != null ? valor.toString() : "";
+            default -> valor;
+        };
+    }
+}
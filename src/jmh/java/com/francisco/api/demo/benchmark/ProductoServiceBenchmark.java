@@ -0,0 +1,110 @@
+package com.francisco.api.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.francisco.api.demo.dto.PaginaCompacta;
+import com.francisco.api.demo.dto.ProductoResumen;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.service.ProductoService;
+
+/**
+ * Caminos calientes de ProductoService contra H2 en memoria con datos
+ * sembrados. Se pasa por el proxy de Spring, así que incluye transacciones y
+ * caché igual que en producción
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+// Con 1M filas la H2 en memoria y los índices no caben en 2 GB
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductoServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int filas;
+
+    private ConfigurableApplicationContext contexto;
+    private ProductoService productoService;
+    private final AtomicLong secuenciaNombres = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(filas);
+        productoService = contexto.getBean(ProductoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Producto obtenerPorId() {
+        return productoService.obtenerPorId(idAleatorio());
+    }
+
+    @Benchmark
+    public Producto crear() {
+        Producto producto = new Producto();
+        producto.setNombre("Benchmark " + secuenciaNombres.incrementAndGet() + " " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        producto.setStock(5);
+        return productoService.crear(producto);
+    }
+
+    @Benchmark
+    public Producto actualizarParcial() {
+        return productoService.actualizarParcial(idAleatorio(),
+                Map.of("stock", ThreadLocalRandom.current().nextInt(200), "precio", 12.5), null);
+    }
+
+    @Benchmark
+    public Page<Producto> obtenerActivosPaginado() {
+        int paginas = Math.max(1, filas / 10);
+        return productoService.obtenerActivosPaginado(
+                PageRequest.of(ThreadLocalRandom.current().nextInt(paginas), 10));
+    }
+
+    @Benchmark
+    public PaginaCompacta<ProductoResumen> obtenerResumen() {
+        int paginas = Math.max(1, filas / 10);
+        return productoService.obtenerResumen(ThreadLocalRandom.current().nextInt(paginas), 10, true);
+    }
+
+    // Typeahead con un prefijo que está en todos los títulos sembrados ("Vol. n")
+    @Benchmark
+    public Page<Producto> buscarPrefijoComun() {
+        return productoService.buscar("vol", true, 0, 10);
+    }
+
+    @Benchmark
+    public Page<Producto> buscarVariasPalabras() {
+        return productoService.buscar("manga vol", true, 0, 10);
+    }
+
+    private long idAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, ContextoBenchmark.FILAS_INICIALES + filas + 1);
+    }
+}
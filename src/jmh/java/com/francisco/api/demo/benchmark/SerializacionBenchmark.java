@@ -0,0 +1,70 @@
+package com.francisco.api.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.api.demo.exception.ErrorResponse;
+import com.francisco.api.demo.model.Producto;
+
+/**
+ * Serialización JSON de las respuestas más frecuentes: una página de 10
+ * productos y un ErrorResponse
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private ObjectMapper objectMapper;
+    private PageImpl<Producto> pagina;
+    private ErrorResponse error;
+
+    @Setup
+    public void iniciar() {
+        // Misma configuración base que usa Spring Boot (módulos de java.time, etc.)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Producto> productos = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            String nombre = "Manga de prueba " + id + " Vol. 1";
+            productos.add(new Producto(id, nombre, nombre.toLowerCase(), "Descripción del manga de prueba " + id,
+                    BigDecimal.valueOf(999, 2), 40, ahora, ahora, true, 0L));
+        }
+        pagina = new PageImpl<>(productos, PageRequest.of(3, 10), 20_000);
+        error = new ErrorResponse(ahora, 404, "Not Found", "No se encontró el producto con ID: 123456",
+                "/api/productos/123456");
+    }
+
+    @Benchmark
+    public byte[] paginaDeProductos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(error);
+    }
+}
@@ -0,0 +1,40 @@
+package com.francisco.api.demo.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Instala el {@link BulkheadDataSource} delante del pool cuando
+ * productos.db.bulkhead.enabled=true (lo activa el perfil "virtual")
+ */
+@Configuration
+@ConditionalOnProperty(name = "productos.db.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${productos.db.bulkhead.permisos:${spring.datasource.hikari.maximum-pool-size:10}}") int permisos,
+            @Value("${productos.db.bulkhead.espera-maxima:5s}") Duration esperaMaxima) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, permisos, esperaMaxima, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
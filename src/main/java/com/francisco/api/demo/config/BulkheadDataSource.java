@@ -0,0 +1,144 @@
+package com.francisco.api.demo.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * DataSource con un semáforo delante del pool: como mucho {@code permisos}
+ * conexiones prestadas a la vez, y el resto de hilos espera en una cola justa
+ * (con tiempo máximo) en vez de agolparse sobre Hikari. Con hilos virtuales
+ * esperar en un Semaphore no bloquea el hilo de plataforma que los lleva.
+ * Publica el tiempo de espera, los rechazos y los permisos libres
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final long esperaMaximaNanos;
+    private final Timer tiempoEspera;
+    private final Counter rechazos;
+
+    public BulkheadDataSource(DataSource destino, int permisos, Duration esperaMaxima, MeterRegistry registry) {
+        super(destino);
+        this.permisos = new Semaphore(permisos, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.tiempoEspera = Timer.builder("productos.db.bulkhead.espera")
+                .description("Tiempo de espera por un permiso antes de pedir conexión al pool")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rechazos = Counter.builder("productos.db.bulkhead.rechazos")
+                .description("Peticiones de conexión que agotaron la espera máxima")
+                .register(registry);
+        Gauge.builder("productos.db.bulkhead.permisos.disponibles", this.permisos, Semaphore::availablePermits)
+                .register(registry);
+        Gauge.builder("productos.db.bulkhead.en.cola", this.permisos, Semaphore::getQueueLength)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return envolver(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return envolver(() -> super.getConnection(username, password));
+    }
+
+    private void adquirir() throws SQLException {
+        long inicio = System.nanoTime();
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        } finally {
+            tiempoEspera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        if (!adquirido) {
+            rechazos.increment();
+            throw new SQLTransientConnectionException(
+                    "No hay conexiones disponibles tras " + Duration.ofNanos(esperaMaximaNanos).toMillis() + " ms");
+        }
+    }
+
+    /**
+     * Devuelve la conexión envuelta para liberar el permiso al cerrarla (una
+     * sola vez, aunque close() se llame varias veces)
+     */
+    private Connection envolver(ProveedorConexion proveedor) throws SQLException {
+        Connection conexion;
+        try {
+            conexion = proveedor.obtener();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConexionConPermiso(conexion));
+    }
+
+    @FunctionalInterface
+    private interface ProveedorConexion {
+        Connection obtener() throws SQLException;
+    }
+
+    private final class ConexionConPermiso implements InvocationHandler {
+
+        private final Connection destino;
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        private ConexionConPermiso(Connection destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    try {
+                        destino.close();
+                    } finally {
+                        if (liberada.compareAndSet(false, true)) {
+                            permisos.release();
+                        }
+                    }
+                    return null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    try {
+                        return method.invoke(destino, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.francisco.api.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuración de la caché de productos (Caffeine). El interceptor de caché
+ * se ejecuta antes que el transaccional: un acierto no abre transacción ni
+ * pide conexión, y los @CacheEvict se aplican después del commit
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String PRODUCTOS = "productos";
+}
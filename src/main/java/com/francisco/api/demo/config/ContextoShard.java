@@ -0,0 +1,50 @@
+package com.francisco.api.demo.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard y tipo de acceso (lectura o escritura) del hilo actual. Hibernate lo
+ * consulta al abrir la sesión, así que hay que fijarlo antes de que empiece la
+ * transacción: una transacción trabaja siempre contra un único shard
+ */
+public final class ContextoShard {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> LECTURA = new ThreadLocal<>();
+
+    private ContextoShard() {
+    }
+
+    // Sin shard fijado se usa el 0 (el de spring.datasource)
+    public static int actual() {
+        Integer shard = SHARD.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static <T> T en(int shard, Supplier<T> tarea) {
+        Integer anterior = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior != null) {
+                SHARD.set(anterior);
+            } else {
+                SHARD.remove();
+            }
+        }
+    }
+
+    public static boolean esLectura() {
+        return Boolean.TRUE.equals(LECTURA.get());
+    }
+
+    // Lo marca el gestor de transacciones según @Transactional(readOnly)
+    static void marcarLectura(boolean lectura) {
+        if (lectura) {
+            LECTURA.set(true);
+        } else {
+            LECTURA.remove();
+        }
+    }
+}
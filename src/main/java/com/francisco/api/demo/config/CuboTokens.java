@@ -0,0 +1,42 @@
+package com.francisco.api.demo.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de tokens sin bloqueos: {@code tasa} tokens por segundo y ráfagas de
+ * hasta {@code capacidad}. Se implementa como GCRA: en vez de tokens restantes
+ * y hora de la última recarga (dos valores que habría que actualizar juntos)
+ * guarda un único instante, la llegada teórica de la siguiente petición, que
+ * se avanza con compareAndSet
+ */
+public class CuboTokens {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong llegadaTeorica;
+
+    public CuboTokens(double tasa, int capacidad, long ahoraNanos) {
+        this.intervaloNanos = (long) (1_000_000_000L / tasa);
+        this.toleranciaNanos = intervaloNanos * capacidad;
+        // Empieza lleno
+        this.llegadaTeorica = new AtomicLong(ahoraNanos);
+    }
+
+    /**
+     * Consume un token. Devuelve 0 si había token o los nanosegundos que faltan
+     * para que lo haya (el cubo no se modifica)
+     */
+    public long consumir(long ahoraNanos) {
+        while (true) {
+            long actual = llegadaTeorica.get();
+            long siguiente = Math.max(actual, ahoraNanos) + intervaloNanos;
+            long exceso = siguiente - ahoraNanos - toleranciaNanos;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (llegadaTeorica.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+}
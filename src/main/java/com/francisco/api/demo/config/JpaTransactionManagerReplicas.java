@@ -0,0 +1,39 @@
+package com.francisco.api.demo.config;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Marca las transacciones @Transactional(readOnly = true) antes de que
+ * Hibernate pida la conexión, para que ProveedorConexionesShards las envíe a
+ * la réplica. TransactionSynchronizationManager no sirve aquí: el flag de solo
+ * lectura se publica después de doBegin, cuando la conexión ya se obtuvo
+ */
+public class JpaTransactionManagerReplicas extends JpaTransactionManager {
+
+    public JpaTransactionManagerReplicas(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        ContextoShard.marcarLectura(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            ContextoShard.marcarLectura(false);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            ContextoShard.marcarLectura(false);
+        }
+    }
+}
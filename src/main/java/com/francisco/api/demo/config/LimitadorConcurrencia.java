@@ -0,0 +1,77 @@
+package com.francisco.api.demo.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Límite de peticiones en curso que se adapta a la latencia (AIMD): cada
+ * petición que termina por debajo de la latencia objetivo suma 1/límite (el
+ * límite crece en uno por "ventana" completa) y cada una que la supera, o que
+ * termina en 503, lo multiplica por {@code factorReduccion}. Lo que excede el
+ * límite se rechaza al llegar, antes de encolarse esperando una conexión
+ */
+public class LimitadorConcurrencia {
+
+    private final double minimo;
+    private final double maximo;
+    private final double factorReduccion;
+    private final long latenciaObjetivoNanos;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    // double guardado como bits para actualizarlo con compareAndSet
+    private final AtomicLong limite;
+
+    public LimitadorConcurrencia(int inicial, int minimo, int maximo, double factorReduccion,
+            Duration latenciaObjetivo) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.factorReduccion = factorReduccion;
+        this.latenciaObjetivoNanos = latenciaObjetivo.toNanos();
+        this.limite = new AtomicLong(Double.doubleToLongBits(inicial));
+    }
+
+    public int limite() {
+        return (int) Double.longBitsToDouble(limite.get());
+    }
+
+    public int enCurso() {
+        return enCurso.get();
+    }
+
+    /**
+     * Reserva un lugar; false si ya hay tantas peticiones en curso como el límite
+     */
+    public boolean adquirir() {
+        if (enCurso.incrementAndGet() > limite()) {
+            enCurso.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Libera el lugar y ajusta el límite con la latencia observada
+     */
+    public void liberar(long latenciaNanos, boolean sobrecarga) {
+        int ocupados = enCurso.getAndDecrement();
+        boolean lenta = sobrecarga || latenciaNanos > latenciaObjetivoNanos;
+        limite.getAndUpdate(bits -> {
+            double actual = Double.longBitsToDouble(bits);
+            double nuevo;
+            if (lenta) {
+                nuevo = Math.max(minimo, actual * factorReduccion);
+            } else if (ocupados * 2 >= actual) {
+                nuevo = Math.min(maximo, actual + 1 / actual);
+            } else {
+                // Con poca carga no hay señal para crecer
+                return bits;
+            }
+            return Double.doubleToLongBits(nuevo);
+        });
+    }
+
+    // Peticiones asíncronas (streaming): el hilo del servlet ya terminó y su latencia no es representativa
+    public void liberar() {
+        enCurso.decrementAndGet();
+    }
+}
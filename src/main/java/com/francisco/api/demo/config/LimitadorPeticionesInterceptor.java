@@ -0,0 +1,131 @@
+package com.francisco.api.demo.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.francisco.api.demo.exception.LimiteExcedidoException;
+import com.francisco.api.demo.exception.SobrecargaException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Control de admisión de la API de productos, antes de llegar al controlador:
+ * primero un cubo de tokens por cliente y endpoint (429 si se agota) y luego
+ * el límite de concurrencia adaptativo global (503 si está lleno). Los
+ * rechazos lanzan excepciones que responde GlobalExceptionHandler.
+ *
+ * El cliente es la IP remota o, si se configura un encabezado (p. ej. la API
+ * key que agrega el gateway), su valor. Detrás de un proxy sin encabezado
+ * propio hay que activar server.forward-headers-strategy: si no, todos los
+ * clientes comparten la IP del proxy y un solo cubo
+ */
+public class LimitadorPeticionesInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String INICIO = LimitadorPeticionesInterceptor.class.getName() + ".inicio";
+
+    private final Tasa lectura;
+    private final Tasa escritura;
+    private final LimitadorConcurrencia concurrencia;
+    private final long reintentoSobrecarga;
+    private final MeterRegistry meterRegistry;
+    // null = la IP remota
+    private final String encabezadoCliente;
+    // Un cubo inactivo más tiempo del que tarda en llenarse equivale a uno nuevo
+    private final Cache<String, CuboTokens> cubos;
+
+    public LimitadorPeticionesInterceptor(Tasa lectura, Tasa escritura, LimitadorConcurrencia concurrencia,
+            Duration reintentoSobrecarga, int maximoClientes, String encabezadoCliente, MeterRegistry meterRegistry) {
+        this.lectura = lectura;
+        this.escritura = escritura;
+        this.concurrencia = concurrencia;
+        this.reintentoSobrecarga = Math.max(1, reintentoSobrecarga.toSeconds());
+        this.meterRegistry = meterRegistry;
+        this.encabezadoCliente = encabezadoCliente == null || encabezadoCliente.isBlank() ? null : encabezadoCliente;
+        this.cubos = Caffeine.newBuilder()
+                .maximumSize(maximoClientes)
+                .expireAfterAccess(Duration.ofNanos(Math.max(lectura.llenado(), escritura.llenado())))
+                .build();
+    }
+
+    /**
+     * Tasa sostenida (peticiones por segundo) y ráfaga máxima de un tipo de endpoint
+     */
+    public record Tasa(double porSegundo, int rafaga) {
+
+        long llenado() {
+            return (long) (rafaga / porSegundo * 1_000_000_000L);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // El redespacho de una petición asíncrona ya fue admitido
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tasa tasa = HttpMethod.GET.matches(request.getMethod()) ? lectura : escritura;
+        long ahora = System.nanoTime();
+        CuboTokens cubo = cubos.get(cliente(request) + " " + endpoint,
+                clave -> new CuboTokens(tasa.porSegundo(), tasa.rafaga(), ahora));
+
+        long espera = cubo.consumir(ahora);
+        if (espera > 0) {
+            contar(endpoint, "rechazada-tasa");
+            throw new LimiteExcedidoException("Demasiadas peticiones a " + endpoint + ", vuelva a intentarlo más tarde",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + 999_999_999L)));
+        }
+        if (!concurrencia.adquirir()) {
+            contar(endpoint, "rechazada-concurrencia");
+            throw new SobrecargaException("El servicio está saturado, vuelva a intentarlo en unos segundos",
+                    reintentoSobrecarga);
+        }
+
+        contar(endpoint, "admitida");
+        request.setAttribute(INICIO, ahora);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        if (request.getAttribute(INICIO) != null) {
+            request.removeAttribute(INICIO);
+            concurrencia.liberar();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(INICIO) instanceof Long inicio) {
+            request.removeAttribute(INICIO);
+            concurrencia.liberar(System.nanoTime() - inicio,
+                    response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String valor = encabezadoCliente != null ? request.getHeader(encabezadoCliente) : null;
+        return valor != null && !valor.isBlank() ? valor : request.getRemoteAddr();
+    }
+
+    // productos_limites_peticiones_total{endpoint, resultado} en Prometheus
+    private void contar(String endpoint, String resultado) {
+        meterRegistry.counter("productos.limites.peticiones",
+                "endpoint", endpoint,
+                "resultado", resultado).increment();
+    }
+}
@@ -0,0 +1,57 @@
+package com.francisco.api.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Límites de tasa y de concurrencia delante de /api/productos/**. Se desactivan
+ * con productos.limites.enabled=false (scripts/carga.sh lo hace para medir el
+ * servicio sin recortes)
+ */
+@Configuration
+@ConditionalOnProperty(name = "productos.limites.enabled", havingValue = "true", matchIfMissing = true)
+public class LimitesConfig implements WebMvcConfigurer {
+
+    private final LimitadorPeticionesInterceptor interceptor;
+
+    public LimitesConfig(MeterRegistry meterRegistry,
+            @Value("${productos.limites.lectura.tasa:50}") double tasaLectura,
+            @Value("${productos.limites.lectura.rafaga:100}") int rafagaLectura,
+            @Value("${productos.limites.escritura.tasa:10}") double tasaEscritura,
+            @Value("${productos.limites.escritura.rafaga:20}") int rafagaEscritura,
+            @Value("${productos.limites.clientes-maximos:100000}") int clientesMaximos,
+            @Value("${productos.limites.encabezado-cliente:}") String encabezadoCliente,
+            @Value("${productos.limites.concurrencia.inicial:50}") int inicial,
+            @Value("${productos.limites.concurrencia.minimo:5}") int minimo,
+            @Value("${productos.limites.concurrencia.maximo:200}") int maximo,
+            @Value("${productos.limites.concurrencia.factor-reduccion:0.9}") double factorReduccion,
+            @Value("${productos.limites.concurrencia.latencia-objetivo:500ms}") Duration latenciaObjetivo,
+            @Value("${productos.limites.concurrencia.reintento:1s}") Duration reintento) {
+
+        LimitadorConcurrencia concurrencia = new LimitadorConcurrencia(inicial, minimo, maximo, factorReduccion,
+                latenciaObjetivo);
+        Gauge.builder("productos.limites.concurrencia.limite", concurrencia, LimitadorConcurrencia::limite)
+                .description("Límite adaptativo de peticiones en curso")
+                .register(meterRegistry);
+        Gauge.builder("productos.limites.concurrencia.en.curso", concurrencia, LimitadorConcurrencia::enCurso)
+                .register(meterRegistry);
+
+        this.interceptor = new LimitadorPeticionesInterceptor(
+                new LimitadorPeticionesInterceptor.Tasa(tasaLectura, rafagaLectura),
+                new LimitadorPeticionesInterceptor.Tasa(tasaEscritura, rafagaEscritura),
+                concurrencia, reintento, clientesMaximos, encabezadoCliente, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/productos/**");
+    }
+}
@@ -0,0 +1,25 @@
+package com.francisco.api.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Métricas propias de la aplicación. Las de endpoints (http.server.requests),
+ * repositorios (spring.data.repository.invocations), Hibernate, caché y pool
+ * de conexiones las registra Spring Boot; aquí solo se habilita @Timed en los
+ * servicios. El aspecto va por dentro del de caché, así que los aciertos no
+ * llegan al timer (se cuentan en cache.gets)
+ */
+@Configuration
+public class MetricasConfig {
+
+    public static final String TIMER_SERVICIO = "productos.servicio";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
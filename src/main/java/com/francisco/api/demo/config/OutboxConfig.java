@@ -0,0 +1,12 @@
+package com.francisco.api.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas que vacían y limpian el outbox de cambios
+ */
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+}
@@ -0,0 +1,96 @@
+package com.francisco.api.demo.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+/**
+ * Conexiones por shard para Hibernate. Cada shard es un "tenant" de Hibernate:
+ * la sesión toma el shard de ContextoShard al abrirse y el optimizador de la
+ * secuencia guarda un bloque de ids distinto por tenant, así los ids nuevos
+ * salen de la secuencia (y del rango) del shard correcto. Las transacciones de
+ * solo lectura usan la réplica del shard si está configurada
+ */
+public class ProveedorConexionesShards
+        implements MultiTenantConnectionProvider<String>, CurrentTenantIdentifierResolver<String>, AutoCloseable {
+
+    private final List<DataSource> primarios;
+    // Misma posición que primarios; null si el shard no tiene réplica
+    private final List<DataSource> replicas;
+
+    public ProveedorConexionesShards(List<DataSource> primarios, List<DataSource> replicas) {
+        this.primarios = primarios;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return String.valueOf(ContextoShard.actual());
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        int shard = Integer.parseInt(tenant);
+        DataSource replica = replicas.get(shard);
+        return ContextoShard.esLectura() && replica != null
+                ? replica.getConnection()
+                : primarios.get(shard).getConnection();
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection conexion) throws SQLException {
+        conexion.close();
+    }
+
+    // Metadatos y herramientas de esquema: shard 0
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return primarios.get(0).getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection conexion) throws SQLException {
+        conexion.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    // Cierra los pools propios; el primario del shard 0 es spring.datasource y lo cierra Spring
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : primarios.subList(1, primarios.size())) {
+            ((AutoCloseable) pool).close();
+        }
+        for (DataSource pool : replicas) {
+            if (pool != null) {
+                ((AutoCloseable) pool).close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> tipo) {
+        return tipo.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> tipo) {
+        if (!isUnwrappableAs(tipo)) {
+            throw new IllegalArgumentException("No se puede convertir a " + tipo.getName());
+        }
+        return tipo.cast(this);
+    }
+}
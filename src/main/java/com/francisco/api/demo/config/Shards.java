@@ -0,0 +1,104 @@
+package com.francisco.api.demo.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Reparto de productos por rango de id: el shard n guarda los ids de
+ * [n * rango, (n + 1) * rango), porque su secuencia arranca en n * rango + 1.
+ * Con un solo shard (configuración por defecto) las tareas se ejecutan en el
+ * mismo hilo y no hay enrutamiento
+ */
+public class Shards {
+
+    private final int cantidad;
+    private final long rango;
+    private final Executor ejecutor;
+    private final AtomicInteger siguienteAlta = new AtomicInteger();
+
+    public Shards(int cantidad, long rango, Executor ejecutor) {
+        this.cantidad = cantidad;
+        this.rango = rango;
+        this.ejecutor = ejecutor;
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    public long rango() {
+        return rango;
+    }
+
+    /**
+     * Shard dueño del id, o -1 si el id no cae en ningún rango (no existe)
+     */
+    public int deId(Long id) {
+        if (id == null || id < 1) {
+            return -1;
+        }
+        long shard = id / rango;
+        return shard < cantidad ? (int) shard : -1;
+    }
+
+    // Los productos nuevos se reparten por turnos
+    public int paraAlta() {
+        return Math.floorMod(siguienteAlta.getAndIncrement(), cantidad);
+    }
+
+    public <T> T en(int shard, Supplier<T> tarea) {
+        return ContextoShard.en(shard, tarea);
+    }
+
+    public void en(int shard, Runnable tarea) {
+        ContextoShard.en(shard, () -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    public void enCada(IntConsumer tarea) {
+        enTodos(shard -> {
+            tarea.accept(shard);
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta la tarea (que recibe el número de shard) en todos los shards en
+     * paralelo y devuelve los resultados en orden de shard. Si alguna falla se
+     * propaga su excepción
+     */
+    public <T> List<T> enTodos(IntFunction<T> tarea) {
+        if (cantidad == 1) {
+            return Collections.singletonList(en(0, () -> tarea.apply(0)));
+        }
+
+        List<CompletableFuture<T>> futuros = new ArrayList<>(cantidad);
+        for (int shard = 0; shard < cantidad; shard++) {
+            int destino = shard;
+            futuros.add(CompletableFuture.supplyAsync(() -> en(destino, () -> tarea.apply(destino)), ejecutor));
+        }
+
+        List<T> resultados = new ArrayList<>(cantidad);
+        try {
+            for (CompletableFuture<T> futuro : futuros) {
+                resultados.add(futuro.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,137 @@
+package com.francisco.api.demo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Particionado de productos entre varias bases (productos.shards.urls) y
+ * réplicas de lectura (productos.shards.replicas). Sin esas propiedades hay un
+ * único shard: spring.datasource
+ */
+@Configuration
+public class ShardsConfig {
+
+    @Bean
+    public Shards shards(@Value("${productos.shards.urls:}") List<String> urls,
+            @Value("${productos.shards.rango:1000000000}") long rango,
+            @Qualifier("applicationTaskExecutor") Executor applicationTaskExecutor) {
+        return new Shards(1 + urls.size(), rango, applicationTaskExecutor);
+    }
+
+    /**
+     * Enrutamiento de conexiones con la multi-tenencia de Hibernate (un tenant
+     * por shard). El shard 0 es spring.datasource; el resto y las réplicas son
+     * pools Hikari propios con las mismas credenciales y los mismos
+     * spring.datasource.hikari.* (con auto-commit=false Hibernate no lo
+     * desactiva, así que un pool sin ese ajuste haría cada sentencia atómica
+     * por separado)
+     */
+    @Configuration
+    @ConditionalOnExpression("!'${productos.shards.urls:}'.isEmpty() or !'${productos.shards.replicas:}'.isEmpty()")
+    static class Enrutamiento {
+
+        @Bean
+        public ProveedorConexionesShards proveedorConexionesShards(DataSource dataSource,
+                DataSourceProperties propiedades, Shards shards, MeterRegistry meterRegistry, Environment entorno,
+                @Value("${productos.shards.urls:}") List<String> urls,
+                @Value("${productos.shards.replicas:}") List<String> urlsReplicas) {
+
+            Binder binder = Binder.get(entorno);
+            List<DataSource> primarios = new ArrayList<>();
+            primarios.add(dataSource);
+            for (int i = 0; i < urls.size(); i++) {
+                primarios.add(pool("shard-" + (i + 1), urls.get(i), false, propiedades, binder, meterRegistry));
+            }
+
+            // Una URL de réplica por shard, en el mismo orden; vacía si el shard no tiene
+            List<DataSource> replicas = new ArrayList<>();
+            for (int shard = 0; shard < shards.cantidad(); shard++) {
+                String url = shard < urlsReplicas.size() ? urlsReplicas.get(shard).trim() : "";
+                replicas.add(url.isEmpty() ? null : pool("replica-" + shard, url, true, propiedades, binder,
+                        meterRegistry));
+            }
+
+            // Solo réplicas: el esquema sigue siendo el de la configuración normal
+            if (primarios.size() > 1) {
+                migrar(primarios, shards.rango());
+            }
+            return new ProveedorConexionesShards(primarios, replicas);
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer multiTenenciaShards(ProveedorConexionesShards proveedor) {
+            return propiedades -> {
+                propiedades.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, proveedor);
+                propiedades.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, proveedor);
+            };
+        }
+
+        @Bean
+        public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                ObjectProvider<TransactionManagerCustomizers> customizers) {
+            JpaTransactionManager transactionManager = new JpaTransactionManagerReplicas(entityManagerFactory);
+            customizers.ifAvailable(c -> c.customize(transactionManager));
+            return transactionManager;
+        }
+
+        private static HikariDataSource pool(String nombre, String url, boolean soloLectura,
+                DataSourceProperties propiedades, Binder binder, MeterRegistry meterRegistry) {
+            HikariDataSource pool = propiedades.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName(nombre);
+            pool.setReadOnly(soloLectura);
+            pool.setMetricRegistry(meterRegistry);
+            return pool;
+        }
+
+        /**
+         * Aplica las migraciones Flyway en cada shard. Los datos iniciales (V2,
+         * ids 1..20) solo van al shard 0 y la secuencia del shard n se lleva al
+         * inicio de su rango la primera vez que se crea el esquema
+         */
+        private static void migrar(List<DataSource> primarios, long rango) {
+            for (int shard = 0; shard < primarios.size(); shard++) {
+                DataSource dataSource = primarios.get(shard);
+                MigrateResult resultado = Flyway.configure()
+                        .dataSource(dataSource)
+                        .target(shard == 0 ? "latest" : "1")
+                        .load()
+                        .migrate();
+
+                if (shard > 0 && resultado.initialSchemaVersion == null) {
+                    new JdbcTemplate(dataSource).execute(
+                            "ALTER SEQUENCE productos_seq RESTART WITH " + (shard * rango + 1));
+                }
+            }
+        }
+    }
+}
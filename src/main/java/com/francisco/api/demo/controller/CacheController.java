@@ -0,0 +1,46 @@
+package com.francisco.api.demo.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.francisco.api.demo.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Expone las estadísticas de la caché de productos para poder dimensionarla
+ */
+@RestController
+@RequestMapping("/api/productos/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    @GetMapping("/estadisticas")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTOS);
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativa =
+                (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+        CacheStats stats = nativa.stats();
+
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("cache", CacheConfig.PRODUCTOS);
+        respuesta.put("tamanio", nativa.estimatedSize());
+        respuesta.put("aciertos", stats.hitCount());
+        respuesta.put("fallos", stats.missCount());
+        respuesta.put("tasaAciertos", stats.hitRate());
+        respuesta.put("desalojos", stats.evictionCount());
+        respuesta.put("tiempoPromedioCargaNanos", stats.averageLoadPenalty());
+
+        return ResponseEntity.ok(respuesta);
+    }
+}
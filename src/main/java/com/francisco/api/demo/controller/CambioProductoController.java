@@ -0,0 +1,31 @@
+package com.francisco.api.demo.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.francisco.api.demo.dto.FeedCambios;
+import com.francisco.api.demo.service.CambioProductoService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Feed incremental de cambios de productos (outbox)
+ */
+@RestController
+@RequestMapping("/api/productos/changes")
+@RequiredArgsConstructor
+public class CambioProductoController {
+
+    private final CambioProductoService cambioProductoService;
+
+    @GetMapping
+    public ResponseEntity<FeedCambios> obtenerCambios(
+            @RequestParam(required = false, defaultValue = "0") long since,
+            @RequestParam(required = false, defaultValue = "100") int limite) {
+
+        return ResponseEntity.ok(cambioProductoService.obtenerCambios(since, limite));
+    }
+}
@@ -1,5 +1,8 @@
 package com.francisco.api.demo.controller;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -7,7 +10,9 @@ import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,12 +21,33 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.francisco.api.demo.dto.AjusteStock;
+import com.francisco.api.demo.dto.EstadisticasProductos;
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.dto.PaginaCompacta;
+import com.francisco.api.demo.dto.PaginaCursor;
+import com.francisco.api.demo.dto.StockActual;
+import com.francisco.api.demo.dto.VersionProducto;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.exception.PrecondicionFallidaException;
 import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.service.FormatoExportacion;
+import com.francisco.api.demo.service.OrdenCursor;
+import com.francisco.api.demo.service.ProductoExportService;
 import com.francisco.api.demo.service.ProductoService;
+import com.francisco.api.demo.service.memoria.CachePaginas;
+import com.francisco.api.demo.service.memoria.CachePaginas.PaginaSerializada;
+import com.francisco.api.demo.service.memoria.EstadisticasCatalogo;
+import com.francisco.api.demo.service.memoria.IndiceStockBajo;
+import com.francisco.api.demo.service.memoria.VersionCatalogo;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -32,35 +58,158 @@ import lombok.RequiredArgsConstructor;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final ProductoExportService productoExportService;
+    private final IndiceStockBajo indiceStockBajo;
+    private final VersionCatalogo versionCatalogo;
+    private final CachePaginas cachePaginas;
+    private final EstadisticasCatalogo estadisticasCatalogo;
 
-    @GetMapping
-    public ResponseEntity<Page<Producto>> obtenerTodos(
+    // Las primeras páginas se sirven desde CachePaginas ya serializadas (y en gzip si el cliente lo acepta)
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> obtenerTodos(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos) {
+            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+
+        if (listadoSinCambios(request)) {
+            return null;
+        }
 
+        if (page < 0) {
+            throw new InvalidProductoException("El número de página no puede ser negativo");
+        }
         Pageable pageable = PageRequest.of(page, 10);
 
-        Page<Producto> productos = soloActivos
-                ? productoService.obtenerActivosPaginado(pageable)
-                : productoService.obtenerTodosPaginado(pageable);
+        PaginaSerializada pagina = cachePaginas.obtener(soloActivos ? "activos" : "todos", page,
+                () -> soloActivos
+                        ? productoService.obtenerActivosPaginado(pageable)
+                        : productoService.obtenerTodosPaginado(pageable));
 
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (pagina.gzip() != null && aceptaGzip(acceptEncoding)) {
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(pagina.gzip());
+        }
+        return respuesta.body(pagina.json());
+    }
+
+    // Multi-get (?ids=1,2,3): una consulta para los ids que no están en caché
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Producto>> obtenerPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productoService.obtenerPorIds(ids));
+    }
+
+    // Multi-get con los ids en el cuerpo, para listas que no caben en la URL
+    @PostMapping("/ids")
+    public ResponseEntity<List<Producto>> buscarPorIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productoService.obtenerPorIds(ids));
+    }
+
+    // Listado compacto: solo columnas del resumen (o las pedidas en fields=), sin entidades ni count
+    @GetMapping("/resumen")
+    public ResponseEntity<PaginaCompacta<?>> obtenerResumen(
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest request) {
+
+        if (listadoSinCambios(request)) {
+            return null;
+        }
+
+        PaginaCompacta<?> pagina = fields == null || fields.isEmpty()
+                ? productoService.obtenerResumen(page, size, soloActivos)
+                : productoService.obtenerCampos(fields, page, size, soloActivos);
+
+        return ResponseEntity.ok(pagina);
+    }
+
+    // Paginación por cursor: tiempo constante por página sin importar la profundidad
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursor<Producto>> obtenerPorCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos,
+            @RequestParam(required = false, defaultValue = "id") String orden,
+            WebRequest request) {
+
+        if (listadoSinCambios(request)) {
+            return null;
+        }
+
+        PaginaCursor<Producto> pagina = productoService.obtenerPorCursor(
+                after, size, soloActivos, OrdenCursor.desde(orden));
+        return ResponseEntity.ok(pagina);
+    }
+
+    // Búsqueda por prefijo (typeahead) sobre nombre y descripción
+    @GetMapping("/search")
+    public ResponseEntity<Page<Producto>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos) {
+
+        Page<Producto> productos = productoService.buscar(q, soloActivos, page, size);
         return ResponseEntity.ok(productos);
     }
 
+    // Estadísticas del catálogo desde contadores en memoria: O(1) sin importar el tamaño
+    @GetMapping("/stats")
+    public ResponseEntity<EstadisticasProductos> obtenerEstadisticas() {
+        return ResponseEntity.ok(estadisticasCatalogo.obtener());
+    }
+
+    // Exportación completa en streaming (NDJSON o CSV) sin paginar
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos) {
+
+        FormatoExportacion formato = FormatoExportacion.desde(format);
+        StreamingResponseBody cuerpo = salida -> productoExportService.exportar(formato, soloActivos, salida);
+
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"productos." + formato.getExtension() + "\"")
+                .body(cuerpo);
+    }
+
+    // Revalidación (If-None-Match / If-Modified-Since): el 304 se decide con la versión de la caché
+    // o, si no está, con una consulta de solo la versión; un id inexistente ya conocido no llega a la BD
     @GetMapping("/{id}")
-    public ResponseEntity<Producto> obtenerPorId(@PathVariable Long id) {
+    public ResponseEntity<Producto> obtenerPorId(@PathVariable Long id, WebRequest request) {
+        if (esCondicional(request)) {
+            VersionProducto version = productoService.obtenerVersion(id);
+            if (request.checkNotModified(etag(version.getVersion()), milisegundos(version.getFechaActualizacion()))) {
+                return null;
+            }
+        }
+
         Producto producto = productoService.obtenerPorId(id);
-        return ResponseEntity.ok(producto);
+        return conVersion(producto);
     }
 
     @GetMapping("/stock-bajo")
     public ResponseEntity<List<Producto>> obtenerStockBajo(
-            @RequestParam(defaultValue = "10") Integer stockMinimo) {
+            @RequestParam(defaultValue = "10") Integer stockMinimo,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "50") int limite) {
 
-        List<Producto> productos = productoService.obtenerConStockBajo(stockMinimo);
+        List<Producto> productos = productoService.obtenerConStockBajo(stockMinimo, page, limite);
         return ResponseEntity.ok(productos);
     }
 
+    // Notifica por SSE los productos que bajan del umbral de stock configurado
+    @GetMapping(value = "/stock-bajo/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirStockBajo() {
+        return indiceStockBajo.suscribir();
+    }
+
     @PostMapping
     public ResponseEntity<Producto> crear(@Valid @RequestBody Producto producto) {
         Producto nuevoProducto = productoService.crear(producto);
@@ -70,25 +219,66 @@ public class ProductoController {
     @PutMapping("/{id}")
     public ResponseEntity<Producto> actualizar(
             @PathVariable Long id,
-            @Valid @RequestBody Producto producto) {
+            @Valid @RequestBody Producto producto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Producto productoActualizado = productoService.actualizar(id, producto);
-        return ResponseEntity.ok(productoActualizado);
+        Producto productoActualizado = productoService.actualizar(id, producto, versionDeIfMatch(ifMatch));
+        return conVersion(productoActualizado);
     }
 
-    @PatchMapping("/{id}")
+    @PatchMapping(value = "/{id}", consumes = "application/json")
     public ResponseEntity<Producto> actualizarParcial(
             @PathVariable Long id,
-            @RequestBody Map<String, Object> campos) {
+            @RequestBody Map<String, Object> campos,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        Producto productoActualizado = productoService.actualizarParcial(id, campos, versionDeIfMatch(ifMatch));
+        return conVersion(productoActualizado);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<Producto> aplicarMergePatch(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> parche,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Producto productoActualizado = productoService.actualizarParcial(id, campos);
-        return ResponseEntity.ok(productoActualizado);
+        Producto productoActualizado = productoService.aplicarMergePatch(id, parche, versionDeIfMatch(ifMatch));
+        return conVersion(productoActualizado);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = "application/json-patch+json")
+    public ResponseEntity<Producto> aplicarJsonPatch(
+            @PathVariable Long id,
+            @RequestBody List<OperacionPatch> operaciones,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        Producto productoActualizado = productoService.aplicarJsonPatch(id, operaciones, versionDeIfMatch(ifMatch));
+        return conVersion(productoActualizado);
+    }
+
+    // Ajuste atómico de stock: delta positivo repone, negativo descuenta
+    @PostMapping("/{id}/stock:adjust")
+    public ResponseEntity<StockActual> ajustarStock(
+            @PathVariable Long id,
+            @Valid @RequestBody AjusteStock ajuste) {
+
+        StockActual stock = productoService.ajustarStock(id, ajuste.getDelta());
+        return ResponseEntity.ok(stock);
+    }
+
+    @PostMapping("/stock:adjust")
+    public ResponseEntity<List<StockActual>> ajustarStockLote(@RequestBody List<AjusteStock> ajustes) {
+        List<StockActual> stocks = productoService.ajustarStockLote(ajustes);
+        return ResponseEntity.ok(stocks);
     }
 
     // Soft delete - marca como inactivo
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, String>> eliminar(@PathVariable Long id) {
-        productoService.eliminar(id);
+    public ResponseEntity<Map<String, String>> eliminar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        productoService.eliminar(id, versionDeIfMatch(ifMatch));
 
         Map<String, String> respuesta = new HashMap<>();
         respuesta.put("mensaje", "Producto eliminado exitosamente");
@@ -99,8 +289,76 @@ public class ProductoController {
 
     // Hard delete - borra permanentemente de la BD
     @DeleteMapping("/{id}/fisico")
-    public ResponseEntity<Void> eliminarFisico(@PathVariable Long id) {
-        productoService.eliminarFisico(id);
+    public ResponseEntity<Void> eliminarFisico(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        productoService.eliminarFisico(id, versionDeIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    // Los listados se validan contra la versión global del catálogo, sin consultar la BD
+    private boolean listadoSinCambios(WebRequest request) {
+        return request.checkNotModified(versionCatalogo.etag(), versionCatalogo.ultimaModificacion().toEpochMilli());
+    }
+
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static boolean esCondicional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // ETag fuerte del producto: su número de versión (@Version)
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // fecha_actualizacion admite null (filas cargadas por fuera de JPA): -1 = sin Last-Modified
+    private static long milisegundos(LocalDateTime fecha) {
+        return fecha != null ? fecha(fecha).toInstant().toEpochMilli() : -1;
+    }
+
+    private static ResponseEntity<Producto> conVersion(Producto producto) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().eTag(etag(producto.getVersion()));
+        if (producto.getFechaActualizacion() != null) {
+            respuesta.lastModified(fecha(producto.getFechaActualizacion()));
+        }
+        return respuesta.body(producto);
+    }
+
+    private static ZonedDateTime fecha(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault());
+    }
+
+    /**
+     * Versión esperada según If-Match: null si no se envía o es "*". La
+     * comparación es fuerte, así que un ETag débil o con otro formato nunca
+     * coincide
+     */
+    private static Long versionDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            try {
+                return Long.valueOf(valor.substring(1, valor.length() - 1));
+            } catch (NumberFormatException e) {
+                // Se informa abajo
+            }
+        }
+        throw new PrecondicionFallidaException("If-Match no coincide con ninguna versión del producto: " + valor);
+    }
 }
@@ -0,0 +1,99 @@
+package com.francisco.api.demo.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.api.demo.dto.RespuestaLote;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.service.ProductoLoteService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Endpoints de operaciones masivas. Aceptan un arreglo JSON o NDJSON (un
+ * elemento por línea, Content-Type application/x-ndjson). Cada petición se
+ * procesa en una transacción, así que admite como máximo
+ * "productos.bulk.maximo" elementos (400 si trae más)
+ */
+@RestController
+@RequestMapping("/api/productos/bulk")
+@RequiredArgsConstructor
+public class ProductoLoteController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ProductoLoteService productoLoteService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${productos.bulk.maximo:10000}")
+    private int maximo;
+
+    @PostMapping(consumes = "application/json")
+    public ResponseEntity<RespuestaLote> crear(@RequestBody List<Producto> productos) {
+        return ResponseEntity.ok(productoLoteService.crear(validarTamanio(productos)));
+    }
+
+    @PostMapping(consumes = NDJSON)
+    public ResponseEntity<RespuestaLote> crearNdjson(InputStream cuerpo) {
+        return ResponseEntity.ok(productoLoteService.crear(leerNdjson(cuerpo, Producto.class)));
+    }
+
+    @PutMapping(consumes = "application/json")
+    public ResponseEntity<RespuestaLote> crearOActualizar(@RequestBody List<Producto> productos) {
+        return ResponseEntity.ok(productoLoteService.crearOActualizar(validarTamanio(productos)));
+    }
+
+    @PutMapping(consumes = NDJSON)
+    public ResponseEntity<RespuestaLote> crearOActualizarNdjson(InputStream cuerpo) {
+        return ResponseEntity.ok(productoLoteService.crearOActualizar(leerNdjson(cuerpo, Producto.class)));
+    }
+
+    // Soft delete masivo: recibe la lista de ids
+    @DeleteMapping(consumes = "application/json")
+    public ResponseEntity<RespuestaLote> eliminar(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productoLoteService.eliminar(validarTamanio(ids)));
+    }
+
+    @DeleteMapping(consumes = NDJSON)
+    public ResponseEntity<RespuestaLote> eliminarNdjson(InputStream cuerpo) {
+        return ResponseEntity.ok(productoLoteService.eliminar(leerNdjson(cuerpo, Long.class)));
+    }
+
+    /**
+     * Lee el cuerpo NDJSON elemento por elemento, sin cargarlo entero como
+     * texto, y se detiene al pasar el máximo
+     */
+    private <T> List<T> leerNdjson(InputStream cuerpo, Class<T> tipo) {
+        List<T> elementos = new ArrayList<>();
+        try (MappingIterator<T> valores = objectMapper.readerFor(tipo).readValues(cuerpo)) {
+            while (valores.hasNextValue()) {
+                elementos.add(valores.nextValue());
+                validarTamanio(elementos);
+            }
+        } catch (IOException e) {
+            throw new InvalidProductoException("El cuerpo NDJSON no es válido");
+        }
+        return elementos;
+    }
+
+    private <T> List<T> validarTamanio(List<T> elementos) {
+        if (elementos.size() > maximo) {
+            throw new InvalidProductoException("Una operación masiva admite como máximo " + maximo + " elementos");
+        }
+        return elementos;
+    }
+}
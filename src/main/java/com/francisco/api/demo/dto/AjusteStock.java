@@ -0,0 +1,21 @@
+package com.francisco.api.demo.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ajuste de stock con signo (positivo repone, negativo descuenta). En el
+ * endpoint individual el id viaja en la URL
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AjusteStock {
+
+    private Long id;
+
+    @NotNull(message = "El delta es obligatorio")
+    private Integer delta;
+}
@@ -0,0 +1,31 @@
+package com.francisco.api.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estadísticas del catálogo completo (productos activos e inactivos). Los
+ * precios son null si no hay productos; distribucionStock va de tramo (p. ej.
+ * "11-50") a cantidad de productos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasProductos {
+
+    private long total;
+    private long activos;
+    private long inactivos;
+    private long stockTotal;
+    private BigDecimal valorInventario;
+    private BigDecimal precioMinimo;
+    private BigDecimal precioPromedio;
+    private BigDecimal precioMaximo;
+    private Map<String, Long> distribucionStock;
+    private Instant ultimaReconciliacion;
+}
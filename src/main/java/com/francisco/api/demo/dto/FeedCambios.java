@@ -0,0 +1,23 @@
+package com.francisco.api.demo.dto;
+
+import java.util.List;
+
+import com.francisco.api.demo.model.CambioProducto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página del feed de cambios. "siguiente" es la posición a enviar como since en
+ * la próxima petición
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedCambios {
+
+    private List<CambioProducto> cambios;
+    private long siguiente;
+    private boolean tieneMas;
+}
@@ -0,0 +1,18 @@
+package com.francisco.api.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Operación de un documento JSON Patch (RFC 6902)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacionPatch {
+
+    private String op;
+    private String path;
+    private Object value;
+}
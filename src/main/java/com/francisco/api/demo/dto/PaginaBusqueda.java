@@ -0,0 +1,25 @@
+package com.francisco.api.demo.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Página de resultados de búsqueda. Con un prefijo muy común el índice deja de
+ * contar antes del final y totalElements es una cota inferior: lo indica
+ * totalExacto
+ */
+public class PaginaBusqueda<T> extends PageImpl<T> {
+
+    private final boolean totalExacto;
+
+    public PaginaBusqueda(List<T> contenido, Pageable pageable, long total, boolean totalExacto) {
+        super(contenido, pageable, total);
+        this.totalExacto = totalExacto;
+    }
+
+    public boolean isTotalExacto() {
+        return totalExacto;
+    }
+}
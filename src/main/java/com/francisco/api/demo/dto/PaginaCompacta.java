@@ -0,0 +1,22 @@
+package com.francisco.api.demo.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envoltorio mínimo de una página por número. A diferencia de Page no incluye
+ * el total ni los metadatos de ordenamiento, así que no requiere count(*)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCompacta<T> {
+
+    private List<T> contenido;
+    private int pagina;
+    private int tamanio;
+    private boolean tieneSiguiente;
+}
@@ -0,0 +1,22 @@
+package com.francisco.api.demo.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envoltorio de una página obtenida por cursor (keyset). No incluye el total de
+ * elementos para evitar el count(*) en cada petición
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursor<T> {
+
+    private List<T> contenido;
+    private int tamanio;
+    private boolean tieneSiguiente;
+    private String siguienteCursor;
+}
@@ -0,0 +1,23 @@
+package com.francisco.api.demo.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección de listado: solo las columnas que necesita el catálogo. Se
+ * construye directamente en la consulta (SELECT new), sin entidades
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoResumen {
+
+    private Long id;
+    private String nombre;
+    private BigDecimal precio;
+    private Integer stock;
+    private Boolean activo;
+}
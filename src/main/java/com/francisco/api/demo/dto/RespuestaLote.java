@@ -0,0 +1,28 @@
+package com.francisco.api.demo.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta de una operación masiva con el resultado de cada elemento
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespuestaLote {
+
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<ResultadoLote> resultados;
+
+    public static RespuestaLote de(List<ResultadoLote> resultados) {
+        int fallidos = (int) resultados.stream()
+                .filter(r -> r.getEstado() == ResultadoLote.Estado.ERROR)
+                .count();
+        return new RespuestaLote(resultados.size(), resultados.size() - fallidos, fallidos, resultados);
+    }
+}
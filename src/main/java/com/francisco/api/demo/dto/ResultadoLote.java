@@ -0,0 +1,24 @@
+package com.francisco.api.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un elemento dentro de una operación masiva. El índice es la
+ * posición del elemento en la petición
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLote {
+
+    public enum Estado {
+        CREADO, ACTUALIZADO, ELIMINADO, ERROR
+    }
+
+    private int indice;
+    private Long id;
+    private Estado estado;
+    private String mensaje;
+}
@@ -0,0 +1,17 @@
+package com.francisco.api.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock resultante de un producto después de un ajuste
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockActual {
+
+    private Long id;
+    private Integer stock;
+}
@@ -0,0 +1,20 @@
+package com.francisco.api.demo.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versión y fecha de última modificación de un producto, para responder
+ * peticiones condicionales (ETag / Last-Modified) sin cargar la entidad
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionProducto {
+
+    private Long version;
+    private LocalDateTime fechaActualizacion;
+}
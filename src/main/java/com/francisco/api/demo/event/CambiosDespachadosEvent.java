@@ -0,0 +1,14 @@
+package com.francisco.api.demo.event;
+
+import java.util.List;
+
+import com.francisco.api.demo.model.CambioProducto;
+
+/**
+ * Lote de cambios del outbox entregado por el despachador a los listeners
+ * internos. Se publica desde el hilo del despachador, fuera de las peticiones;
+ * la entrega es al menos una vez, así que los consumidores deben tolerar
+ * repetidos (la posición sirve para descartarlos)
+ */
+public record CambiosDespachadosEvent(List<CambioProducto> cambios) {
+}
@@ -0,0 +1,32 @@
+package com.francisco.api.demo.event;
+
+import com.francisco.api.demo.model.Producto;
+
+/**
+ * Evento publicado por cada escritura sobre un producto. "anterior" es una
+ * copia del estado previo (null al crear) y "actual" la entidad guardada (null
+ * al borrar físicamente). Los consumidores que necesiten conservar "actual"
+ * deben copiarlo
+ */
+public record ProductoCambiadoEvent(TipoCambio tipo, Long id, Producto anterior, Producto actual) {
+
+    public enum TipoCambio {
+        CREADO, ACTUALIZADO, DESACTIVADO, ELIMINADO
+    }
+
+    public static ProductoCambiadoEvent creado(Producto actual) {
+        return new ProductoCambiadoEvent(TipoCambio.CREADO, actual.getId(), null, actual);
+    }
+
+    public static ProductoCambiadoEvent actualizado(Producto anterior, Producto actual) {
+        return new ProductoCambiadoEvent(TipoCambio.ACTUALIZADO, actual.getId(), anterior, actual);
+    }
+
+    public static ProductoCambiadoEvent desactivado(Producto anterior, Producto actual) {
+        return new ProductoCambiadoEvent(TipoCambio.DESACTIVADO, actual.getId(), anterior, actual);
+    }
+
+    public static ProductoCambiadoEvent eliminado(Producto anterior) {
+        return new ProductoCambiadoEvent(TipoCambio.ELIMINADO, anterior.getId(), anterior, null);
+    }
+}
@@ -1,97 +1,215 @@
 package com.francisco.api.demo.exception;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.context.request.WebRequest;
+
+import com.francisco.api.demo.model.Producto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Manejador global de excepciones para la API. Usa @ControllerAdvice para
- * capturar excepciones en todos los controladores.
+ * capturar excepciones en todos los controladores. Responde con ErrorResponse,
+ * o con ProblemDetail (RFC 7807) si el cliente acepta application/problem+json
  */
 
+@Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(ProductoNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleProductoNotFoundException(
+    public ResponseEntity<Object> handleProductoNotFoundException(
             ProductoNotFoundException ex,
-            WebRequest request) {
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.NOT_FOUND.value(),
-                "Not Found",
-                ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
-        );
+            HttpServletRequest request) {
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        contar("handleProductoNotFoundException", ex);
+        return respuesta(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), null, request);
     }
 
     // Validación de producto exep
     @ExceptionHandler(InvalidProductoException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidProductoException(
+    public ResponseEntity<Object> handleInvalidProductoException(
             InvalidProductoException ex,
-            WebRequest request) {
+            HttpServletRequest request) {
 
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
-        );
+        contar("handleInvalidProductoException", ex);
+        return badRequest(ex.getMessage(), request);
+    }
+
+
+    // Restricciones de la BD (p. ej. nombre repetido): se responden como error de validación
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex,
+            HttpServletRequest request) {
+
+        contar("handleDataIntegrityViolationException", ex);
+
+        String causa = String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase();
+        String mensaje = causa.contains(Producto.UK_NOMBRE_NORMALIZADO)
+                ? "Ya existe un producto con ese nombre"
+                : "Los datos enviados violan una restricción de integridad";
+
+        return badRequest(mensaje, request);
+    }
+
+    // Conflicto de bloqueo optimista (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex,
+            HttpServletRequest request) {
+
+        contar("handleOptimisticLockingFailureException", ex);
+        return respuesta(HttpStatus.CONFLICT, "Conflict",
+                "El producto fue modificado por otra operación, vuelva a intentarlo", null, request);
+    }
+
+    // If-Match no coincide con la versión actual del producto
+    @ExceptionHandler(PrecondicionFallidaException.class)
+    public ResponseEntity<Object> handlePrecondicionFallidaException(
+            PrecondicionFallidaException ex,
+            HttpServletRequest request) {
+
+        contar("handlePrecondicionFallidaException", ex);
+        return respuesta(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", ex.getMessage(), null, request);
+    }
+
+    // Sin conexión a la BD en el tiempo máximo (bulkhead o pool agotado): se puede reintentar
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Object> handleConexionNoDisponible(
+            Exception ex,
+            HttpServletRequest request) {
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        contar("handleConexionNoDisponible", ex);
+        return respuesta(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+                "El servicio está saturado, vuelva a intentarlo en unos segundos", null, request);
     }
 
+    // Cliente por encima de su tasa de peticiones: Retry-After indica cuándo habrá un token
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<Object> handleLimiteExcedidoException(
+            LimiteExcedidoException ex,
+            HttpServletRequest request) {
+
+        contar("handleLimiteExcedidoException", ex);
+        return conReintento(respuesta(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", ex.getMessage(),
+                null, request), ex.getReintentarEnSegundos());
+    }
+
+    // Petición descartada por el límite de concurrencia, antes de pedir conexión a la BD
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<Object> handleSobrecargaException(
+            SobrecargaException ex,
+            HttpServletRequest request) {
+
+        contar("handleSobrecargaException", ex);
+        return conReintento(respuesta(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", ex.getMessage(),
+                null, request), ex.getReintentarEnSegundos());
+    }
 
     // Validación de Bean Validation
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleValidationExceptions(
+    public ResponseEntity<Object> handleValidationExceptions(
             MethodArgumentNotValidException ex,
-            WebRequest request) {
+            HttpServletRequest request) {
+
+        contar("handleValidationExceptions", ex);
 
         List<String> detalles = new ArrayList<>();
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
             detalles.add(error.getField() + ": " + error.getDefaultMessage());
         }
 
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.BAD_REQUEST.value(),
-                "Validation Error",
-                "Error en la validación de los datos",
-                request.getDescription(false).replace("uri=", ""),
-                detalles
-        );
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respuesta(HttpStatus.BAD_REQUEST, "Validation Error", "Error en la validación de los datos",
+                detalles, request);
     }
 
 
-    // Manejo global de excepciones no controladas
+    // Manejo global de excepciones no controladas: el detalle va al log, no a la respuesta
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGlobalException(
+    public ResponseEntity<Object> handleGlobalException(
             Exception ex,
-            WebRequest request) {
+            HttpServletRequest request) {
+
+        contar("handleGlobalException", ex);
+        log.error("Error no controlado en {} {}", request.getMethod(), request.getRequestURI(), ex);
+
+        return respuesta(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                "Ocurrió un error inesperado", null, request);
+    }
+
+    private ResponseEntity<Object> badRequest(String mensaje, HttpServletRequest request) {
+        return respuesta(HttpStatus.BAD_REQUEST, "Bad Request", mensaje, null, request);
+    }
+
+    private ResponseEntity<Object> respuesta(HttpStatus status, String error, String mensaje,
+            List<String> detalles, HttpServletRequest request) {
+
+        if (aceptaProblemDetail(request)) {
+            ProblemDetail problema = ProblemDetail.forStatusAndDetail(status, mensaje);
+            problema.setTitle(error);
+            try {
+                problema.setInstance(URI.create(request.getRequestURI()));
+            } catch (IllegalArgumentException e) {
+                // URI no válida: se omite instance
+            }
+            if (detalles != null) {
+                problema.setProperty("detalles", detalles);
+            }
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(problema);
+        }
 
         ErrorResponse errorResponse = new ErrorResponse(
                 LocalDateTime.now(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Internal Server Error",
-                "Ocurrió un error inesperado: " + ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
+                status.value(),
+                error,
+                mensaje,
+                request.getRequestURI(),
+                detalles
         );
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    private static ResponseEntity<Object> conReintento(ResponseEntity<Object> respuesta, long reintentarEnSegundos) {
+        return ResponseEntity.status(respuesta.getStatusCode())
+                .headers(respuesta.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarEnSegundos))
+                .body(respuesta.getBody());
+    }
+
+    // Solo si se pide explícitamente: con Accept vacío o */* se mantiene ErrorResponse
+    private static boolean aceptaProblemDetail(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+    }
+
+    // Contador de excepciones por manejador y tipo (productos_excepciones_total en Prometheus)
+    private void contar(String manejador, Exception ex) {
+        meterRegistry.counter("productos.excepciones",
+                "manejador", manejador,
+                "excepcion", ex.getClass().getSimpleName()).increment();
     }
 }
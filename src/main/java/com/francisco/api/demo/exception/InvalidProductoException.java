@@ -1,12 +1,13 @@
 package com.francisco.api.demo.exception;
 
 /**
- * Excepción personalizada para validaciones de negocio del producto
+ * Excepción personalizada para validaciones de negocio del producto. Se
+ * responde como 400 y no necesita traza de pila
  */
 
 public class InvalidProductoException extends RuntimeException {
 
     public InvalidProductoException(String mensaje) {
-        super(mensaje);
+        super(mensaje, null, false, false);
     }
 }
@@ -0,0 +1,21 @@
+package com.francisco.api.demo.exception;
+
+/**
+ * Excepción que se lanza cuando un cliente supera la tasa de peticiones de un
+ * endpoint (respuesta 429 con Retry-After). Con sobrecarga es la respuesta más
+ * frecuente, así que no captura la traza de pila
+ */
+
+public class LimiteExcedidoException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public LimiteExcedidoException(String mensaje, long reintentarEnSegundos) {
+        super(mensaje, null, false, false);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
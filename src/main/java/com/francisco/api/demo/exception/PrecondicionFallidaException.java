@@ -0,0 +1,13 @@
+package com.francisco.api.demo.exception;
+
+/**
+ * Excepción que se lanza cuando la versión indicada en If-Match no coincide con
+ * la versión actual del producto (respuesta 412)
+ */
+
+public class PrecondicionFallidaException extends RuntimeException {
+
+    public PrecondicionFallidaException(String mensaje) {
+        super(mensaje);
+    }
+}
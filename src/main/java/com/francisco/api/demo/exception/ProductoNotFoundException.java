@@ -2,16 +2,17 @@ package com.francisco.api.demo.exception;
 
 /**
  * Excepción personalizada que se lanza cuando no se encuentra un producto. Se
- * extiende de RuntimeException para ser una excep no verificada
+ * extiende de RuntimeException para ser una excep no verificada. Es una
+ * respuesta esperada (404) y muy frecuente, así que no captura la traza de pila
  */
 
 public class ProductoNotFoundException extends RuntimeException {
 
     public ProductoNotFoundException(Long id) {
-        super("No se encontró el producto con ID: " + id);
+        this("No se encontró el producto con ID: " + id);
     }
 
     public ProductoNotFoundException(String mensaje) {
-        super(mensaje);
+        super(mensaje, null, false, false);
     }
 }
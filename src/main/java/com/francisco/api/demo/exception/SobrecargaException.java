@@ -0,0 +1,22 @@
+package com.francisco.api.demo.exception;
+
+/**
+ * Excepción que se lanza cuando se descarta una petición porque el servicio
+ * ya atiende tantas como su límite de concurrencia (respuesta 503 con
+ * Retry-After). Con sobrecarga es la respuesta más frecuente, así que no
+ * captura la traza de pila
+ */
+
+public class SobrecargaException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public SobrecargaException(String mensaje, long reintentarEnSegundos) {
+        super(mensaje, null, false, false);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
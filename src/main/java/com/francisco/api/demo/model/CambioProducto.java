@@ -0,0 +1,69 @@
+package com.francisco.api.demo.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.francisco.api.demo.event.ProductoCambiadoEvent.TipoCambio;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registro del outbox de cambios de productos. Se inserta en la misma
+ * transacción que la escritura y el despachador le asigna una posición
+ * correlativa al entregarlo a los sumideros; el feed de cambios se lee por esa
+ * posición
+ */
+@Entity
+@Table(name = "cambios_productos", indexes = {
+    @Index(name = "idx_cambios_productos_posicion", columnList = "posicion")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioProducto {
+
+    @JsonIgnore
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cambios_productos_seq")
+    @SequenceGenerator(name = "cambios_productos_seq", sequenceName = "cambios_productos_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Orden de entrega, asignado al despachar (null mientras está pendiente).
+     * Los id de secuencia pueden confirmarse fuera de orden entre transacciones
+     * concurrentes; la posición no, porque la asigna un único despachador
+     */
+    private Long posicion;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoCambio tipo;
+
+    @Column(name = "version_producto")
+    private Long versionProducto;
+
+    // Estado del producto después del cambio en JSON (null si se borró físicamente)
+    @JsonRawValue
+    @Lob
+    private String datos;
+
+    @Column(name = "fecha_registro", nullable = false)
+    private LocalDateTime fechaRegistro;
+}
@@ -2,15 +2,22 @@ package com.francisco.api.demo.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -25,14 +32,30 @@ import lombok.NoArgsConstructor;
  * la base de datos H2
  */
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", uniqueConstraints = {
+    // La unicidad del nombre (sin distinguir mayúsculas) la garantiza la base de datos
+    @UniqueConstraint(name = Producto.UK_NOMBRE_NORMALIZADO, columnNames = "nombre_normalizado")
+}, indexes = {
+    // Soportan la paginación por cursor ordenada por (fechaActualizacion, id)
+    @Index(name = "idx_productos_fecha_actualizacion_id", columnList = "fecha_actualizacion, id"),
+    @Index(name = "idx_productos_activo_id", columnList = "activo, id"),
+    // Consulta de stock bajo ordenada por (stock, id)
+    @Index(name = "idx_productos_stock_id", columnList = "stock, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Producto {
 
+    public static final String UK_NOMBRE_NORMALIZADO = "uk_productos_nombre_normalizado";
+
+    /**
+     * Secuencia con asignación por bloques (optimizador pooled-lo): Hibernate
+     * conoce el id antes del INSERT y puede agrupar las inserciones en lotes JDBC
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre del producto es obligatorio")
@@ -40,6 +63,11 @@ public class Producto {
     @Column(nullable = false, length = 100)
     private String nombre;
 
+    // Nombre en minúsculas, mantenido por los callbacks de JPA
+    @JsonIgnore
+    @Column(name = "nombre_normalizado", nullable = false, length = 100)
+    private String nombreNormalizado;
+
     @Size(max = 500, message = "La descripción no puede exceder los 500 caracteres")
     @Column(length = 500)
     private String descripcion;
@@ -62,22 +90,42 @@ public class Producto {
     @Column(nullable = false)
     private Boolean activo = true;
 
+    // Bloqueo optimista: evita actualizaciones perdidas entre escrituras concurrentes
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Copia con los valores actuales, desacoplada de la sesión de JPA. Se usa
+     * para conservar el estado previo a una escritura
+     */
+    public Producto copia() {
+        return new Producto(id, nombre, nombreNormalizado, descripcion, precio, stock, fechaCreacion,
+                fechaActualizacion, activo, version);
+    }
+
+    public static String normalizarNombre(String nombre) {
+        return nombre != null ? nombre.toLowerCase(Locale.ROOT) : null;
+    }
+
     /**
      * Método que se ejecuta antes de persistir la entidad por primera vez.
-     * Inicializa la fecha de creación
+     * Inicializa la fecha de creación y el nombre normalizado
      */
     @PrePersist
     protected void onCreate() {
+        nombreNormalizado = normalizarNombre(nombre);
         fechaCreacion = LocalDateTime.now();
         fechaActualizacion = LocalDateTime.now();
     }
 
     /**
      * Método que se ejecuta antes de actualizar la entidad. Actualiza la fecha
-     * de modificación
+     * de modificación y el nombre normalizado
      */
     @PreUpdate
     protected void onUpdate() {
+        nombreNormalizado = normalizarNombre(nombre);
         fechaActualizacion = LocalDateTime.now();
     }
 }
@@ -0,0 +1,36 @@
+package com.francisco.api.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.francisco.api.demo.model.CambioProducto;
+
+/**
+ * Repo del outbox de cambios de productos
+ */
+@Repository
+public interface CambioProductoRepository extends JpaRepository<CambioProducto, Long> {
+
+    // Pendientes de despachar, en orden de registro
+    @Query("SELECT c FROM CambioProducto c WHERE c.posicion IS NULL ORDER BY c.id")
+    List<CambioProducto> buscarPendientes(Pageable limite);
+
+    @Query("SELECT COALESCE(MAX(c.posicion), 0) FROM CambioProducto c")
+    long buscarUltimaPosicion();
+
+    // Feed de cambios: los ya despachados a partir de una posición
+    @Query("SELECT c FROM CambioProducto c WHERE c.posicion > :desde ORDER BY c.posicion")
+    List<CambioProducto> buscarDesde(@Param("desde") Long desde, Pageable limite);
+
+    // Retención: los despachados antiguos ya no se sirven en el feed
+    @Modifying
+    @Query("DELETE FROM CambioProducto c WHERE c.posicion IS NOT NULL AND c.fechaRegistro < :antesDe")
+    int eliminarDespachadosAntesDe(@Param("antesDe") LocalDateTime antesDe);
+}
@@ -1,25 +1,110 @@
 package com.francisco.api.demo.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.francisco.api.demo.dto.VersionProducto;
 import com.francisco.api.demo.model.Producto;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repo para gestionar las operaciones de acceso a datos de Producto.
  * Extiende JpaRepository para obtener métodos CRUD predefinidos
  */
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, ProductoRepositoryCustom {
 
     Page<Producto> findByActivoTrue(Pageable pageable);
 
-    Optional<Producto> findByNombreIgnoreCase(String nombre);
-
     List<Producto> findByStockLessThanEqual(Integer stock);
+
+    List<Producto> findByStockLessThanEqualOrderByStockAscIdAsc(Integer stock, Pageable pageable);
+
+    // Multi-get: un solo SELECT ... WHERE id IN (...)
+    List<Producto> findByIdIn(Collection<Long> ids);
+
+    // Paginación por cursor (keyset): el Pageable solo limita, no genera count
+    @Query("SELECT p FROM Producto p WHERE p.id > :id ORDER BY p.id")
+    List<Producto> buscarDespuesDeId(@Param("id") Long id, Pageable limite);
+
+    @Query("SELECT p FROM Producto p WHERE p.activo = true AND p.id > :id ORDER BY p.id")
+    List<Producto> buscarActivosDespuesDeId(@Param("id") Long id, Pageable limite);
+
+    @Query("SELECT p FROM Producto p "
+            + "WHERE p.fechaActualizacion > :fecha OR (p.fechaActualizacion = :fecha AND p.id > :id) "
+            + "ORDER BY p.fechaActualizacion, p.id")
+    List<Producto> buscarDespuesDeFecha(
+            @Param("fecha") LocalDateTime fecha, @Param("id") Long id, Pageable limite);
+
+    @Query("SELECT p FROM Producto p WHERE p.activo = true "
+            + "AND (p.fechaActualizacion > :fecha OR (p.fechaActualizacion = :fecha AND p.id > :id)) "
+            + "ORDER BY p.fechaActualizacion, p.id")
+    List<Producto> buscarActivosDespuesDeFecha(
+            @Param("fecha") LocalDateTime fecha, @Param("id") Long id, Pageable limite);
+
+    // Operaciones masivas: una sola consulta para todo el lote
+    @Query("SELECT p.id, p.nombreNormalizado FROM Producto p "
+            + "WHERE p.id IN :ids OR p.nombreNormalizado IN :nombres")
+    List<Object[]> buscarIdYNombre(
+            @Param("ids") Collection<Long> ids, @Param("nombres") Collection<String> nombres);
+
+    @Modifying
+    @Query("UPDATE Producto p SET p.activo = false, p.fechaActualizacion = :fecha, p.version = p.version + 1 "
+            + "WHERE p.id IN :ids")
+    int desactivarPorIds(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha);
+
+    // Recorrido con cursor de solo avance para exportaciones: requiere una transacción abierta
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Producto p ORDER BY p.id")
+    Stream<Producto> recorrerTodos();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Producto p WHERE p.activo = true ORDER BY p.id")
+    Stream<Producto> recorrerActivos();
+
+    // Proyección escalar para construir el índice de búsqueda sin hidratar entidades
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id, p.nombre, p.descripcion, p.activo, p.version FROM Producto p")
+    Stream<Object[]> recorrerTextos();
+
+    /**
+     * Ajuste atómico de stock: un solo UPDATE condicional, sin
+     * leer-modificar-escribir. FINAL TABLE (H2) devuelve la fila ya
+     * actualizada en el mismo viaje a la BD; vacío si no se actualizó ninguna.
+     * Si el producto ya estuviera en el contexto de persistencia, Hibernate
+     * devolvería esa instancia sin refrescarla: quien llama no debe haberlo cargado
+     */
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE productos SET stock = stock + :delta, "
+            + "fecha_actualizacion = :fecha, version = version + 1 WHERE id = :id AND stock + :delta >= 0)",
+            nativeQuery = true)
+    Optional<Producto> ajustarStock(@Param("id") Long id, @Param("delta") int delta,
+            @Param("fecha") LocalDateTime fecha);
+
+    // Consulta mínima para peticiones condicionales (ETag / Last-Modified)
+    @Query("SELECT new com.francisco.api.demo.dto.VersionProducto(p.version, p.fechaActualizacion) "
+            + "FROM Producto p WHERE p.id = :id")
+    Optional<VersionProducto> buscarVersion(@Param("id") Long id);
+
+    @Query("SELECT p.stock FROM Producto p WHERE p.id = :id")
+    Optional<Integer> buscarStock(@Param("id") Long id);
 }
@@ -0,0 +1,33 @@
+package com.francisco.api.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.francisco.api.demo.dto.ProductoResumen;
+
+/**
+ * Consultas de ProductoRepository que no se pueden declarar con @Query
+ */
+public interface ProductoRepositoryCustom {
+
+    /**
+     * Página de resúmenes por desplazamiento, ordenada por id y construida en
+     * la propia consulta (sin entidades ni count)
+     */
+    List<ProductoResumen> buscarResumen(boolean soloActivos, int desde, int limite);
+
+    /**
+     * Selecciona solo las columnas pedidas (atributos de Producto), ordenadas
+     * por id. Cada fila es un mapa atributo → valor en el orden de los campos
+     */
+    List<Map<String, Object>> buscarCampos(Collection<String> campos, boolean soloActivos, int desde, int limite);
+
+    /**
+     * Agregados del catálogo en una sola pasada, agrupados por precio y tramo
+     * de stock (índice del primer límite que el stock no supera, o la
+     * cantidad de límites). Cada fila: precio, tramo, cantidad, activos y
+     * stock total
+     */
+    List<Object[]> agregarPorPrecioYTramo(int[] limitesStock);
+}
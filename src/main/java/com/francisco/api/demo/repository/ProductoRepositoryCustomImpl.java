@@ -0,0 +1,88 @@
+package com.francisco.api.demo.repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.francisco.api.demo.dto.ProductoResumen;
+import com.francisco.api.demo.model.Producto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Implementación del fragmento {@link ProductoRepositoryCustom}. Solo usa
+ * proyecciones (SELECT new y tuplas), así que no se hidrata ninguna entidad
+ */
+public class ProductoRepositoryCustomImpl implements ProductoRepositoryCustom {
+
+    private static final String SELECT_RESUMEN =
+            "SELECT new com.francisco.api.demo.dto.ProductoResumen(p.id, p.nombre, p.precio, p.stock, p.activo) "
+            + "FROM Producto p ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductoResumen> buscarResumen(boolean soloActivos, int desde, int limite) {
+        String jpql = SELECT_RESUMEN + (soloActivos ? "WHERE p.activo = true " : "") + "ORDER BY p.id";
+        return entityManager.createQuery(jpql, ProductoResumen.class)
+                .setFirstResult(desde)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> buscarCampos(Collection<String> campos, boolean soloActivos, int desde,
+            int limite) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<Producto> producto = consulta.from(Producto.class);
+
+        consulta.multiselect(campos.stream()
+                .<Selection<?>>map(campo -> producto.get(campo).alias(campo))
+                .toList());
+        if (soloActivos) {
+            consulta.where(cb.isTrue(producto.get("activo")));
+        }
+        consulta.orderBy(cb.asc(producto.get("id")));
+
+        return entityManager.createQuery(consulta)
+                .setFirstResult(desde)
+                .setMaxResults(limite)
+                .getResultList()
+                .stream()
+                .map(ProductoRepositoryCustomImpl::aMapa)
+                .toList();
+    }
+
+    private static Map<String, Object> aMapa(Tuple tupla) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        for (TupleElement<?> elemento : tupla.getElements()) {
+            fila.put(elemento.getAlias(), tupla.get(elemento));
+        }
+        return fila;
+    }
+
+    @Override
+    public List<Object[]> agregarPorPrecioYTramo(int[] limitesStock) {
+        StringBuilder tramo = new StringBuilder("CASE");
+        for (int i = 0; i < limitesStock.length; i++) {
+            tramo.append(" WHEN p.stock <= ").append(limitesStock[i]).append(" THEN ").append(i);
+        }
+        tramo.append(" ELSE ").append(limitesStock.length).append(" END");
+
+        String jpql = "SELECT p.precio, " + tramo + ", COUNT(p), "
+                + "SUM(CASE WHEN p.activo = true THEN 1 ELSE 0 END), SUM(p.stock) "
+                + "FROM Producto p GROUP BY p.precio, " + tramo;
+        return entityManager.createQuery(jpql, Object[].class).getResultList();
+    }
+}
@@ -0,0 +1,9 @@
+package com.francisco.api.demo.service;
+
+import com.francisco.api.demo.dto.FeedCambios;
+
+public interface CambioProductoService {
+
+    // Cambios ya despachados con posición mayor a "desde", en orden
+    FeedCambios obtenerCambios(long desde, int limite);
+}
@@ -0,0 +1,39 @@
+package com.francisco.api.demo.service;
+
+import org.springframework.http.MediaType;
+
+import com.francisco.api.demo.exception.InvalidProductoException;
+
+/**
+ * Formatos soportados por la exportación del catálogo
+ */
+public enum FormatoExportacion {
+
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    FormatoExportacion(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static FormatoExportacion desde(String valor) {
+        for (FormatoExportacion formato : values()) {
+            if (formato.extension.equalsIgnoreCase(valor)) {
+                return formato;
+            }
+        }
+        throw new InvalidProductoException("Formato de exportación no soportado: " + valor);
+    }
+}
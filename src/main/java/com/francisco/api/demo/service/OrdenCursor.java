@@ -0,0 +1,31 @@
+package com.francisco.api.demo.service;
+
+import com.francisco.api.demo.exception.InvalidProductoException;
+
+/**
+ * Claves de ordenamiento soportadas por la paginación por cursor
+ */
+public enum OrdenCursor {
+
+    ID("id"),
+    FECHA_ACTUALIZACION("fechaActualizacion");
+
+    private final String parametro;
+
+    OrdenCursor(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public static OrdenCursor desde(String valor) {
+        for (OrdenCursor orden : values()) {
+            if (orden.parametro.equalsIgnoreCase(valor)) {
+                return orden;
+            }
+        }
+        throw new InvalidProductoException("Orden no soportado: " + valor);
+    }
+}
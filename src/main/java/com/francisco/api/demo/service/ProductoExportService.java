@@ -0,0 +1,12 @@
+package com.francisco.api.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exportación del catálogo completo escribiendo directamente en la salida
+ */
+public interface ProductoExportService {
+
+    void exportar(FormatoExportacion formato, boolean soloActivos, OutputStream salida) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.francisco.api.demo.service;
+
+import java.util.List;
+
+import com.francisco.api.demo.dto.RespuestaLote;
+import com.francisco.api.demo.model.Producto;
+
+/**
+ * Operaciones masivas sobre productos (importaciones de proveedores)
+ */
+public interface ProductoLoteService {
+
+    RespuestaLote crear(List<Producto> productos);
+
+    // Actualiza por id (o por nombre si no se envía id) y crea los que no existen
+    RespuestaLote crearOActualizar(List<Producto> productos);
+
+    // Soft delete masivo
+    RespuestaLote eliminar(List<Long> ids);
+}
@@ -6,6 +6,13 @@ import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.francisco.api.demo.dto.AjusteStock;
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.dto.PaginaCompacta;
+import com.francisco.api.demo.dto.PaginaCursor;
+import com.francisco.api.demo.dto.ProductoResumen;
+import com.francisco.api.demo.dto.StockActual;
+import com.francisco.api.demo.dto.VersionProducto;
 import com.francisco.api.demo.model.Producto;
 
 public interface ProductoService {
@@ -14,19 +21,49 @@ public interface ProductoService {
 
     Page<Producto> obtenerActivosPaginado(Pageable pageable);
 
+    PaginaCompacta<ProductoResumen> obtenerResumen(int pagina, int tamanio, boolean soloActivos);
+
+    PaginaCompacta<Map<String, Object>> obtenerCampos(List<String> campos, int pagina, int tamanio,
+            boolean soloActivos);
+
+    // Paginación por cursor (keyset), sin count(*) ni OFFSET
+    PaginaCursor<Producto> obtenerPorCursor(String cursor, int tamanio, boolean soloActivos, OrdenCursor orden);
+
     Producto obtenerPorId(Long id);
 
+    // Varios productos por id en el orden pedido; los ids que no existen se omiten
+    List<Producto> obtenerPorIds(List<Long> ids);
+
+    // Versión y fecha de modificación sin cargar la entidad (peticiones condicionales)
+    VersionProducto obtenerVersion(Long id);
+
+    // Búsqueda por prefijo sobre nombre y descripción, ordenada por relevancia
+    Page<Producto> buscar(String consulta, boolean soloActivos, int pagina, int tamanio);
+
     Producto crear(Producto producto);
 
-    Producto actualizar(Long id, Producto producto);
+    // versionEsperada (If-Match) es opcional: si se indica y no coincide, se rechaza la escritura
+    Producto actualizar(Long id, Producto producto, Long versionEsperada);
+
+    Producto actualizarParcial(Long id, Map<String, Object> campos, Long versionEsperada);
+
+    // JSON Merge Patch (RFC 7396)
+    Producto aplicarMergePatch(Long id, Map<String, Object> parche, Long versionEsperada);
+
+    // JSON Patch (RFC 6902)
+    Producto aplicarJsonPatch(Long id, List<OperacionPatch> operaciones, Long versionEsperada);
+
+    // Ajuste atómico de stock con un UPDATE condicional
+    StockActual ajustarStock(Long id, int delta);
 
-    Producto actualizarParcial(Long id, Map<String, Object> campos);
+    // Ajuste de varios productos en una sola transacción (todo o nada)
+    List<StockActual> ajustarStockLote(List<AjusteStock> ajustes);
 
     // Soft delete
-    void eliminar(Long id);
+    void eliminar(Long id, Long versionEsperada);
 
     // Hard delete
-    void eliminarFisico(Long id);
+    void eliminarFisico(Long id, Long versionEsperada);
 
-    List<Producto> obtenerConStockBajo(Integer stockMinimo);
+    List<Producto> obtenerConStockBajo(Integer stockMinimo, int pagina, int limite);
 }
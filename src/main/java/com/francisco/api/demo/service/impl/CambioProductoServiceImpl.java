@@ -0,0 +1,65 @@
+package com.francisco.api.demo.service.impl;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.dto.FeedCambios;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.model.CambioProducto;
+import com.francisco.api.demo.repository.CambioProductoRepository;
+import com.francisco.api.demo.service.CambioProductoService;
+import com.francisco.api.demo.service.outbox.DespachadorCambios;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Feed incremental de cambios leído del outbox, para que los consumidores no
+ * tengan que recorrer los listados completos
+ */
+@Service
+@RequiredArgsConstructor
+public class CambioProductoServiceImpl implements CambioProductoService {
+
+    private final CambioProductoRepository cambioProductoRepository;
+    private final Shards shards;
+    private final DespachadorCambios despachadorCambios;
+
+    @Value("${productos.outbox.feed-limite-maximo:1000}")
+    private int limiteMaximo;
+
+    @Override
+    @Transactional(readOnly = true)
+    public FeedCambios obtenerCambios(long desde, int limite) {
+        if (desde < 0) {
+            throw new InvalidProductoException("since no puede ser negativo");
+        }
+        if (limite < 1 || limite > limiteMaximo) {
+            throw new InvalidProductoException("El límite debe estar entre 1 y " + limiteMaximo);
+        }
+
+        // Se pide un registro extra para saber si hay más sin hacer count. Las posiciones son
+        // comunes a todos los shards: se mezclan y solo se sirven las ya confirmadas en todos
+        long confirmada = despachadorCambios.posicionConfirmada();
+        List<CambioProducto> cambios = shards.enTodos(shard ->
+                        cambioProductoRepository.buscarDesde(desde, PageRequest.of(0, limite + 1)))
+                .stream()
+                .flatMap(List::stream)
+                .filter(cambio -> cambio.getPosicion() <= confirmada)
+                .sorted(Comparator.comparing(CambioProducto::getPosicion))
+                .limit(limite + 1)
+                .toList();
+        boolean tieneMas = cambios.size() > limite;
+        if (tieneMas) {
+            cambios = cambios.subList(0, limite);
+        }
+
+        long siguiente = cambios.isEmpty() ? desde : cambios.get(cambios.size() - 1).getPosicion();
+        return new FeedCambios(cambios, siguiente, tieneMas);
+    }
+}
@@ -0,0 +1,193 @@
+package com.francisco.api.demo.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.francisco.api.demo.config.ContextoShard;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Carga de productos por id con dos agrupaciones. Una sola carga en curso por
+ * id: las peticiones simultáneas del mismo id esperan el resultado de la
+ * primera. Y micro-lotes: las cargas que llegan dentro de la misma ventana (y
+ * al mismo shard) se resuelven con una sola consulta IN. La primera abre el
+ * lote, espera la ventana o a que se llene, y consulta por todas; las demás
+ * esperan su resultado sin tomar conexión. Si no hay otras cargas en curso no
+ * espera: sin concurrencia la ventana solo sumaría latencia. Con ventana 0
+ * cada id consulta solo
+ */
+@Component
+public class CargadorProductos {
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate lectura;
+    private final long ventanaNanos;
+    private final int tamanioMaximo;
+    private final DistributionSummary tamanioLotes;
+    // Lote abierto por shard
+    private final Map<Integer, Lote> abiertos = new ConcurrentHashMap<>();
+    private final AtomicInteger enCurso = new AtomicInteger();
+    // Carga en curso por id (los ids son únicos entre shards)
+    private final Map<Long, CompletableFuture<Optional<Producto>>> enVuelo = new ConcurrentHashMap<>();
+
+    public CargadorProductos(ProductoRepository productoRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${productos.lotes-lectura.ventana:2ms}") Duration ventana,
+            @Value("${productos.lotes-lectura.tamanio-maximo:100}") int tamanioMaximo) {
+        this.productoRepository = productoRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.ventanaNanos = ventana.toNanos();
+        this.tamanioMaximo = tamanioMaximo;
+        this.tamanioLotes = DistributionSummary.builder("productos.lotes-lectura.tamanio")
+                .description("Ids resueltos por cada consulta de micro-lote")
+                .register(meterRegistry);
+    }
+
+    public Optional<Producto> cargar(Long id) {
+        CompletableFuture<Optional<Producto>> propia = new CompletableFuture<>();
+        CompletableFuture<Optional<Producto>> existente = enVuelo.putIfAbsent(id, propia);
+        if (existente != null) {
+            return esperar(existente);
+        }
+
+        enCurso.incrementAndGet();
+        try {
+            Optional<Producto> producto = ventanaNanos == 0
+                    ? lectura.execute(estado -> productoRepository.findById(id))
+                    : cargarEnLote(id, ContextoShard.actual());
+            propia.complete(producto);
+            return producto;
+        } catch (RuntimeException e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.decrementAndGet();
+            enVuelo.remove(id, propia);
+        }
+    }
+
+    private Optional<Producto> cargarEnLote(Long id, int shard) {
+        while (true) {
+            Lote nuevo = new Lote();
+            Lote lote = abiertos.putIfAbsent(shard, nuevo);
+            boolean primero = lote == null;
+            if (primero) {
+                lote = nuevo;
+            }
+
+            CompletableFuture<Optional<Producto>> resultado = lote.agregar(id, tamanioMaximo);
+            if (resultado == null) {
+                // Lote ya cerrado: se abre otro
+                abiertos.remove(shard, lote);
+                continue;
+            }
+            if (lote.estaLleno()) {
+                abiertos.remove(shard, lote);
+            }
+            if (primero) {
+                if (enCurso.get() > 1) {
+                    lote.esperarCierre(ventanaNanos);
+                }
+                abiertos.remove(shard, lote);
+                resolver(lote.cerrar());
+            }
+            return esperar(resultado);
+        }
+    }
+
+    // Varios ids de una vez (multi-get): una consulta, sin pasar por los micro-lotes
+    public List<Producto> cargarTodos(Collection<Long> ids) {
+        List<Producto> productos = lectura.execute(estado -> productoRepository.findByIdIn(ids));
+        tamanioLotes.record(ids.size());
+        return productos;
+    }
+
+    private void resolver(Map<Long, CompletableFuture<Optional<Producto>>> pendientes) {
+        try {
+            Map<Long, Producto> porId = new HashMap<>();
+            if (pendientes.size() == 1) {
+                // Sin otros ids en el lote: búsqueda por clave, más barata que la consulta IN
+                Long id = pendientes.keySet().iterator().next();
+                lectura.execute(estado -> productoRepository.findById(id)).ifPresent(p -> porId.put(id, p));
+            } else {
+                cargarTodos(pendientes.keySet()).forEach(p -> porId.put(p.getId(), p));
+            }
+            pendientes.forEach((id, resultado) -> resultado.complete(Optional.ofNullable(porId.get(id))));
+        } catch (RuntimeException e) {
+            pendientes.values().forEach(resultado -> resultado.completeExceptionally(e));
+        }
+    }
+
+    private static Optional<Producto> esperar(CompletableFuture<Optional<Producto>> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Lote {
+
+        private final Map<Long, CompletableFuture<Optional<Producto>>> pendientes = new HashMap<>();
+        private final CompletableFuture<Void> lleno = new CompletableFuture<>();
+        private boolean cerrado;
+
+        // null si el lote ya se cerró o está lleno
+        synchronized CompletableFuture<Optional<Producto>> agregar(Long id, int tamanioMaximo) {
+            if (cerrado || (pendientes.size() >= tamanioMaximo && !pendientes.containsKey(id))) {
+                return null;
+            }
+            CompletableFuture<Optional<Producto>> resultado =
+                    pendientes.computeIfAbsent(id, k -> new CompletableFuture<>());
+            if (pendientes.size() >= tamanioMaximo) {
+                lleno.complete(null);
+            }
+            return resultado;
+        }
+
+        boolean estaLleno() {
+            return lleno.isDone();
+        }
+
+        void esperarCierre(long ventanaNanos) {
+            try {
+                lleno.get(ventanaNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Se cumplió la ventana
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        synchronized Map<Long, CompletableFuture<Optional<Producto>>> cerrar() {
+            cerrado = true;
+            return pendientes;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.francisco.api.demo.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+import com.francisco.api.demo.service.FormatoExportacion;
+import com.francisco.api.demo.service.ProductoExportService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementación de la exportación. Recorre los productos con un Stream del
+ * repositorio (cursor de solo avance) y desacopla cada entidad después de
+ * escribirla, así la memoria se mantiene constante sin importar el tamaño del
+ * catálogo. Con varios shards se recorren uno tras otro: como cada uno guarda
+ * un rango de ids, la salida sigue ordenada por id
+ */
+@Service
+public class ProductoExportServiceImpl implements ProductoExportService {
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final String CABECERA_CSV =
+            "id,nombre,descripcion,precio,stock,fechaCreacion,fechaActualizacion,activo\n";
+
+    private final ProductoRepository productoRepository;
+    private final ObjectMapper objectMapper;
+    private final Shards shards;
+    private final TransactionTemplate lectura;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductoExportServiceImpl(ProductoRepository productoRepository, ObjectMapper objectMapper, Shards shards,
+            PlatformTransactionManager transactionManager) {
+        this.productoRepository = productoRepository;
+        this.objectMapper = objectMapper;
+        this.shards = shards;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    @Override
+    public void exportar(FormatoExportacion formato, boolean soloActivos, OutputStream salida) throws IOException {
+        try {
+            if (formato == FormatoExportacion.CSV) {
+                escribirCsv(soloActivos, salida);
+            } else {
+                escribirNdjson(soloActivos, salida);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void escribirNdjson(boolean soloActivos, OutputStream salida) throws IOException {
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(salida);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generador.setRootValueSeparator(null);
+
+        recorrer(soloActivos, producto -> {
+            objectMapper.writeValue(generador, producto);
+            generador.writeRaw('\n');
+        });
+        generador.close();
+    }
+
+    private void escribirCsv(boolean soloActivos, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+        escritor.write(CABECERA_CSV);
+
+        recorrer(soloActivos, producto -> {
+            escritor.write(String.valueOf(producto.getId()));
+            escritor.write(',');
+            escritor.write(campoCsv(producto.getNombre()));
+            escritor.write(',');
+            escritor.write(campoCsv(producto.getDescripcion()));
+            escritor.write(',');
+            escritor.write(producto.getPrecio().toPlainString());
+            escritor.write(',');
+            escritor.write(String.valueOf(producto.getStock()));
+            escritor.write(',');
+            escritor.write(String.valueOf(producto.getFechaCreacion()));
+            escritor.write(',');
+            escritor.write(producto.getFechaActualizacion() != null ? producto.getFechaActualizacion().toString() : "");
+            escritor.write(',');
+            escritor.write(String.valueOf(producto.getActivo()));
+            escritor.write('\n');
+        });
+        escritor.flush();
+    }
+
+    /**
+     * Recorre los productos de cada shard con un Stream dentro de su propia
+     * transacción de solo lectura y desacopla cada entidad ya escrita
+     */
+    private void recorrer(boolean soloActivos, EscritorProducto escritor) {
+        for (int shard = 0; shard < shards.cantidad(); shard++) {
+            shards.en(shard, () -> lectura.executeWithoutResult(estado -> {
+                try (Stream<Producto> productos = soloActivos
+                        ? productoRepository.recorrerActivos()
+                        : productoRepository.recorrerTodos()) {
+                    productos.forEach(producto -> {
+                        try {
+                            escritor.escribir(producto);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        entityManager.detach(producto);
+                    });
+                }
+            }));
+        }
+    }
+
+    /**
+     * Escapa un campo de texto según RFC 4180 (comillas dobles si contiene
+     * separadores, comillas o saltos de línea)
+     */
+    private String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface EscritorProducto {
+        void escribir(Producto producto) throws IOException;
+    }
+}
@@ -0,0 +1,288 @@
+package com.francisco.api.demo.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.francisco.api.demo.config.MetricasConfig;
+import com.francisco.api.demo.dto.RespuestaLote;
+import com.francisco.api.demo.dto.ResultadoLote;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+import com.francisco.api.demo.service.ProductoLoteService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación de las operaciones masivas. Todo el lote se valida en memoria
+ * y contra una sola consulta de nombres; las escrituras se envían en lotes JDBC
+ * (hibernate.jdbc.batch_size) y el contexto de persistencia se vacía cada
+ * "productos.bulk.tamanio-lote" elementos para mantener acotada la memoria.
+ * Los elementos inválidos se informan y se omiten sin abortar el resto
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(MetricasConfig.TIMER_SERVICIO)
+public class ProductoLoteServiceImpl implements ProductoLoteService {
+
+    private final ProductoRepository productoRepository;
+    private final ProductoValidador productoValidador;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${productos.bulk.tamanio-lote:100}")
+    private int tamanioLote;
+
+    @Override
+    @Transactional
+    public RespuestaLote crear(List<Producto> productos) {
+        ResultadoLote[] resultados = new ResultadoLote[productos.size()];
+        Map<String, Long> existentes = buscarExistentes(Set.of(), nombresNormalizados(productos));
+
+        Set<String> nombresDelLote = new HashSet<>();
+        List<Integer> pendientes = new ArrayList<>();
+
+        for (int i = 0; i < productos.size(); i++) {
+            Producto producto = productos.get(i);
+            String error = validar(producto);
+            if (error == null) {
+                String nombre = Producto.normalizarNombre(producto.getNombre());
+                if (existentes.containsKey(nombre) || !nombresDelLote.add(nombre)) {
+                    error = "Ya existe un producto con el nombre: " + producto.getNombre();
+                }
+            }
+
+            if (error != null) {
+                resultados[i] = new ResultadoLote(i, null, ResultadoLote.Estado.ERROR, error);
+            } else {
+                producto.setId(null);
+                pendientes.add(i);
+            }
+        }
+
+        for (int desde = 0; desde < pendientes.size(); desde += tamanioLote) {
+            List<Integer> tramo = pendientes.subList(desde, Math.min(desde + tamanioLote, pendientes.size()));
+            for (Integer i : tramo) {
+                entityManager.persist(productos.get(i));
+            }
+            vaciarContexto();
+            for (Integer i : tramo) {
+                Producto creado = productos.get(i);
+                resultados[i] = new ResultadoLote(i, creado.getId(), ResultadoLote.Estado.CREADO, null);
+                eventPublisher.publishEvent(ProductoCambiadoEvent.creado(creado));
+            }
+        }
+
+        return RespuestaLote.de(List.of(resultados));
+    }
+
+    @Override
+    @Transactional
+    public RespuestaLote crearOActualizar(List<Producto> productos) {
+        ResultadoLote[] resultados = new ResultadoLote[productos.size()];
+
+        Set<Long> ids = productos.stream()
+                .map(Producto::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<String, Long> existentes = buscarExistentes(ids, nombresNormalizados(productos));
+        Set<Long> idsExistentes = new HashSet<>(existentes.values());
+
+        Set<String> nombresDelLote = new HashSet<>();
+        Set<Long> idsDelLote = new HashSet<>();
+        Long[] destinos = new Long[productos.size()];
+        List<Integer> pendientes = new ArrayList<>();
+
+        for (int i = 0; i < productos.size(); i++) {
+            Producto producto = productos.get(i);
+            String error = validar(producto);
+            Long destino = null;
+
+            if (error == null) {
+                String nombre = Producto.normalizarNombre(producto.getNombre());
+                Long duenioNombre = existentes.get(nombre);
+                destino = producto.getId() != null ? producto.getId() : duenioNombre;
+
+                if (producto.getId() != null && !idsExistentes.contains(producto.getId())) {
+                    error = "No se encontró el producto con ID: " + producto.getId();
+                } else if (duenioNombre != null && !duenioNombre.equals(destino)) {
+                    error = "Ya existe otro producto con el nombre: " + producto.getNombre();
+                } else if (!nombresDelLote.add(nombre) || (destino != null && !idsDelLote.add(destino))) {
+                    error = "El producto está repetido en el lote: " + producto.getNombre();
+                }
+            }
+
+            if (error != null) {
+                resultados[i] = new ResultadoLote(i, null, ResultadoLote.Estado.ERROR, error);
+            } else {
+                destinos[i] = destino;
+                pendientes.add(i);
+            }
+        }
+
+        for (int desde = 0; desde < pendientes.size(); desde += tamanioLote) {
+            List<Integer> tramo = pendientes.subList(desde, Math.min(desde + tamanioLote, pendientes.size()));
+
+            // Una consulta por tramo para cargar las entidades que se van a actualizar
+            Set<Long> idsTramo = tramo.stream()
+                    .map(i -> destinos[i])
+                    .filter(id -> id != null)
+                    .collect(Collectors.toSet());
+            Map<Long, Producto> entidades = productoRepository.findAllById(idsTramo).stream()
+                    .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
+            List<Producto> guardados = new ArrayList<>(tramo.size());
+            Map<Long, Producto> anteriores = new HashMap<>();
+            for (Integer i : tramo) {
+                Producto datos = productos.get(i);
+                Producto existente = destinos[i] != null ? entidades.get(destinos[i]) : null;
+                if (existente != null) {
+                    anteriores.put(existente.getId(), existente.copia());
+                    existente.setNombre(datos.getNombre());
+                    existente.setDescripcion(datos.getDescripcion());
+                    existente.setPrecio(datos.getPrecio());
+                    existente.setStock(datos.getStock());
+                    existente.setActivo(datos.getActivo());
+                    guardados.add(existente);
+                } else {
+                    datos.setId(null);
+                    entityManager.persist(datos);
+                    guardados.add(datos);
+                }
+            }
+            vaciarContexto();
+
+            for (int j = 0; j < tramo.size(); j++) {
+                int i = tramo.get(j);
+                ResultadoLote.Estado estado = destinos[i] != null
+                        ? ResultadoLote.Estado.ACTUALIZADO
+                        : ResultadoLote.Estado.CREADO;
+                Producto guardado = guardados.get(j);
+                resultados[i] = new ResultadoLote(i, guardado.getId(), estado, null);
+                eventPublisher.publishEvent(estado == ResultadoLote.Estado.CREADO
+                        ? ProductoCambiadoEvent.creado(guardado)
+                        : ProductoCambiadoEvent.actualizado(anteriores.get(guardado.getId()), guardado));
+            }
+        }
+
+        return RespuestaLote.de(List.of(resultados));
+    }
+
+    @Override
+    @Transactional
+    public RespuestaLote eliminar(List<Long> ids) {
+        Set<Long> existentes = new HashSet<>();
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        LocalDateTime ahora = LocalDateTime.now();
+
+        for (int desde = 0; desde < distintos.size(); desde += tamanioLote) {
+            List<Long> tramo = distintos.subList(desde, Math.min(desde + tamanioLote, distintos.size()));
+            List<Producto> encontrados = productoRepository.findAllById(tramo);
+            if (encontrados.isEmpty()) {
+                continue;
+            }
+
+            List<Long> idsEncontrados = encontrados.stream().map(Producto::getId).toList();
+            productoRepository.desactivarPorIds(idsEncontrados, ahora);
+            existentes.addAll(idsEncontrados);
+
+            // El UPDATE masivo no pasa por las entidades: se arma el estado resultante para el evento
+            for (Producto anterior : encontrados) {
+                Producto actual = anterior.copia();
+                actual.setActivo(false);
+                actual.setFechaActualizacion(ahora);
+                actual.setVersion(anterior.getVersion() + 1);
+                eventPublisher.publishEvent(ProductoCambiadoEvent.desactivado(anterior, actual));
+            }
+            // flush antes de limpiar: los listeners del evento pueden haber persistido entidades (outbox)
+            vaciarContexto();
+        }
+
+        List<ResultadoLote> resultados = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            resultados.add(existentes.contains(id)
+                    ? new ResultadoLote(i, id, ResultadoLote.Estado.ELIMINADO, null)
+                    : new ResultadoLote(i, id, ResultadoLote.Estado.ERROR,
+                            "No se encontró el producto con ID: " + id));
+        }
+        return RespuestaLote.de(resultados);
+    }
+
+    /**
+     * Devuelve nombre normalizado -> id de los productos existentes que
+     * coinciden por id o por nombre, en una sola consulta
+     */
+    private Map<String, Long> buscarExistentes(Set<Long> ids, Set<String> nombres) {
+        Map<String, Long> existentes = new HashMap<>();
+        if (ids.isEmpty() && nombres.isEmpty()) {
+            return existentes;
+        }
+
+        for (Object[] fila : productoRepository.buscarIdYNombre(ids, nombres)) {
+            existentes.put((String) fila[1], (Long) fila[0]);
+        }
+        return existentes;
+    }
+
+    private Set<String> nombresNormalizados(List<Producto> productos) {
+        return productos.stream()
+                .map(Producto::getNombre)
+                .filter(nombre -> nombre != null)
+                .map(Producto::normalizarNombre)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Aplica Bean Validation y las reglas de negocio a un elemento del lote.
+     * Devuelve el mensaje de error o null si es válido
+     */
+    private String validar(Producto producto) {
+        if (producto == null) {
+            return "El elemento no puede ser nulo";
+        }
+
+        Set<ConstraintViolation<Producto>> violaciones = validator.validate(producto);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+
+        try {
+            productoValidador.validar(producto);
+        } catch (InvalidProductoException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    // Envía los INSERT/UPDATE pendientes en lotes JDBC y libera el contexto
+    private void vaciarContexto() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
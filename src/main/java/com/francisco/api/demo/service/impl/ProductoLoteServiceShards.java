@@ -0,0 +1,167 @@
+package com.francisco.api.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.francisco.api.demo.config.MetricasConfig;
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.dto.RespuestaLote;
+import com.francisco.api.demo.dto.ResultadoLote;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+import com.francisco.api.demo.service.ProductoLoteService;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Operaciones masivas sobre varios shards (perfil "shards"). Cada elemento va
+ * al shard dueño de su id; las altas se reparten por turnos y las
+ * actualizaciones por nombre van al shard que ya tiene ese nombre. Cada grupo
+ * se aplica con ProductoLoteServiceImpl dentro de su shard, en su propia
+ * transacción, y los resultados se devuelven en el orden de la petición.
+ * Como el índice único del nombre solo cubre su shard, los nombres del lote
+ * se buscan antes en todos
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "productos.shards.urls")
+@Timed(MetricasConfig.TIMER_SERVICIO)
+public class ProductoLoteServiceShards implements ProductoLoteService {
+
+    private final ProductoLoteServiceImpl delegado;
+    private final ProductoRepository productoRepository;
+    private final Shards shards;
+    private final TransactionTemplate lectura;
+
+    public ProductoLoteServiceShards(ProductoLoteServiceImpl delegado, ProductoRepository productoRepository,
+            Shards shards, PlatformTransactionManager transactionManager) {
+        this.delegado = delegado;
+        this.productoRepository = productoRepository;
+        this.shards = shards;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    @Override
+    public RespuestaLote crear(List<Producto> productos) {
+        ResultadoLote[] resultados = new ResultadoLote[productos.size()];
+        Map<String, Long> existentes = buscarNombres(productos);
+        Set<String> nombresDelLote = new HashSet<>();
+        Map<Integer, List<Integer>> porShard = new TreeMap<>();
+
+        for (int i = 0; i < productos.size(); i++) {
+            String nombre = nombreNormalizado(productos.get(i));
+            if (nombre != null && (existentes.containsKey(nombre) || !nombresDelLote.add(nombre))) {
+                resultados[i] = error(i, "Ya existe un producto con el nombre: " + productos.get(i).getNombre());
+            } else {
+                porShard.computeIfAbsent(shards.paraAlta(), s -> new ArrayList<>()).add(i);
+            }
+        }
+
+        aplicar(porShard, productos, resultados, delegado::crear);
+        return RespuestaLote.de(List.of(resultados));
+    }
+
+    @Override
+    public RespuestaLote crearOActualizar(List<Producto> productos) {
+        ResultadoLote[] resultados = new ResultadoLote[productos.size()];
+        Map<String, Long> existentes = buscarNombres(productos);
+        Set<String> nombresDelLote = new HashSet<>();
+        Map<Integer, List<Integer>> porShard = new TreeMap<>();
+
+        for (int i = 0; i < productos.size(); i++) {
+            Producto producto = productos.get(i);
+            String nombre = nombreNormalizado(producto);
+            Long duenioNombre = nombre != null ? existentes.get(nombre) : null;
+            Long destino = producto.getId() != null ? producto.getId() : duenioNombre;
+            int shard = destino != null ? shards.deId(destino) : shards.paraAlta();
+
+            if (shard < 0) {
+                resultados[i] = error(i, "No se encontró el producto con ID: " + producto.getId());
+            } else if (duenioNombre != null && !duenioNombre.equals(destino)) {
+                resultados[i] = error(i, "Ya existe otro producto con el nombre: " + producto.getNombre());
+            } else if (nombre != null && !nombresDelLote.add(nombre)) {
+                resultados[i] = error(i, "El producto está repetido en el lote: " + producto.getNombre());
+            } else {
+                porShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(i);
+            }
+        }
+
+        aplicar(porShard, productos, resultados, delegado::crearOActualizar);
+        return RespuestaLote.de(List.of(resultados));
+    }
+
+    @Override
+    public RespuestaLote eliminar(List<Long> ids) {
+        ResultadoLote[] resultados = new ResultadoLote[ids.size()];
+        Map<Integer, List<Integer>> porShard = new TreeMap<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            int shard = shards.deId(ids.get(i));
+            if (shard < 0) {
+                resultados[i] = new ResultadoLote(i, ids.get(i), ResultadoLote.Estado.ERROR,
+                        "No se encontró el producto con ID: " + ids.get(i));
+            } else {
+                porShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(i);
+            }
+        }
+
+        aplicar(porShard, ids, resultados, delegado::eliminar);
+        return RespuestaLote.de(List.of(resultados));
+    }
+
+    /**
+     * Aplica cada grupo en su shard y ubica sus resultados en la posición que
+     * tenía cada elemento en la petición
+     */
+    private <T> void aplicar(Map<Integer, List<Integer>> porShard, List<T> elementos, ResultadoLote[] resultados,
+            Function<List<T>, RespuestaLote> operacion) {
+        porShard.forEach((shard, indices) -> {
+            List<T> grupo = indices.stream().map(elementos::get).toList();
+            RespuestaLote respuesta = shards.en(shard, () -> operacion.apply(grupo));
+            for (ResultadoLote resultado : respuesta.getResultados()) {
+                int i = indices.get(resultado.getIndice());
+                resultados[i] = new ResultadoLote(i, resultado.getId(), resultado.getEstado(), resultado.getMensaje());
+            }
+        });
+    }
+
+    // Nombre normalizado -> id de los productos existentes con los nombres del lote, en todos los shards
+    private Map<String, Long> buscarNombres(List<Producto> productos) {
+        Set<String> nombres = productos.stream()
+                .map(this::nombreNormalizado)
+                .filter(nombre -> nombre != null)
+                .collect(Collectors.toSet());
+        Map<String, Long> existentes = new HashMap<>();
+        if (nombres.isEmpty()) {
+            return existentes;
+        }
+
+        shards.enTodos(shard -> lectura.execute(estado -> productoRepository.buscarIdYNombre(Set.of(), nombres)))
+                .forEach(filas -> filas.forEach(fila -> existentes.put((String) fila[1], (Long) fila[0])));
+        return existentes;
+    }
+
+    private String nombreNormalizado(Producto producto) {
+        return producto != null && producto.getNombre() != null
+                ? Producto.normalizarNombre(producto.getNombre())
+                : null;
+    }
+
+    private static ResultadoLote error(int indice, String mensaje) {
+        return new ResultadoLote(indice, null, ResultadoLote.Estado.ERROR, mensaje);
+    }
+}
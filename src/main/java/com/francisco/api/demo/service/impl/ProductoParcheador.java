@@ -0,0 +1,171 @@
+package com.francisco.api.demo.service.impl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.model.Producto;
+
+/**
+ * Aplica actualizaciones parciales sobre un Producto. La tabla de campos
+ * modificables (nombre -> conversor + setter) se arma una sola vez, así cada
+ * PATCH evita la reflexión y las conversiones vía String
+ */
+@Component
+public class ProductoParcheador {
+
+    // Campos que existen en Producto pero no se pueden modificar por PATCH. La versión se
+    // condiciona con If-Match y el nombre normalizado se deriva del nombre
+    private static final Set<String> CAMPOS_PROTEGIDOS = Set.of(
+            "id", "fechaCreacion", "fechaActualizacion", "version", "nombreNormalizado");
+
+    private static final Map<String, Campo<?>> CAMPOS = Map.of(
+            "nombre", new Campo<>(ProductoParcheador::aTexto, Producto::setNombre, Producto::getNombre, false, ""),
+            "descripcion", new Campo<>(ProductoParcheador::aTexto, Producto::setDescripcion, Producto::getDescripcion, true, ""),
+            "precio", new Campo<>(ProductoParcheador::aBigDecimal, Producto::setPrecio, Producto::getPrecio, false, null),
+            "stock", new Campo<>(ProductoParcheador::aEntero, Producto::setStock, Producto::getStock, false, null),
+            "activo", new Campo<>(ProductoParcheador::aBooleano, Producto::setActivo, Producto::getActivo, false, null));
+
+    /**
+     * PATCH clásico (application/json): cada clave es un campo a reemplazar.
+     * Un texto nulo se guarda como cadena vacía
+     */
+    public void aplicarCampos(Producto producto, Map<String, Object> campos) {
+        campos.forEach((nombre, valor) -> {
+            Campo<?> campo = buscarCampo(nombre);
+            campo.aplicar(producto, nombre, valor != null ? valor : campo.valorSiNulo());
+        });
+    }
+
+    /**
+     * JSON Merge Patch (RFC 7396): un valor nulo elimina el campo, lo que solo
+     * se admite en los campos opcionales
+     */
+    public void aplicarMergePatch(Producto producto, Map<String, Object> parche) {
+        parche.forEach((nombre, valor) -> buscarCampo(nombre).aplicar(producto, nombre, valor));
+    }
+
+    /**
+     * JSON Patch (RFC 6902): soporta add, replace, remove y test sobre campos
+     * de primer nivel
+     */
+    public void aplicarJsonPatch(Producto producto, List<OperacionPatch> operaciones) {
+        for (OperacionPatch operacion : operaciones) {
+            String nombre = nombreDesdeRuta(operacion.getPath());
+            Campo<?> campo = buscarCampo(nombre);
+
+            switch (operacion.getOp() == null ? "" : operacion.getOp()) {
+                case "add", "replace" -> campo.aplicar(producto, nombre, operacion.getValue());
+                case "remove" -> campo.aplicar(producto, nombre, null);
+                case "test" -> {
+                    if (!campo.coincide(producto, nombre, operacion.getValue())) {
+                        throw new InvalidProductoException(
+                                "La operación test falló para el campo '" + nombre + "'");
+                    }
+                }
+                default -> throw new InvalidProductoException(
+                        "Operación JSON Patch no soportada: " + operacion.getOp());
+            }
+        }
+    }
+
+    private Campo<?> buscarCampo(String nombre) {
+        Campo<?> campo = CAMPOS.get(nombre);
+        if (campo != null) {
+            return campo;
+        }
+        if (CAMPOS_PROTEGIDOS.contains(nombre)) {
+            throw new InvalidProductoException("El campo '" + nombre + "' no se puede modificar");
+        }
+        throw new InvalidProductoException("El campo '" + nombre + "' no existe en Producto");
+    }
+
+    private String nombreDesdeRuta(String ruta) {
+        if (ruta == null || !ruta.startsWith("/") || ruta.indexOf('/', 1) >= 0) {
+            throw new InvalidProductoException("Ruta JSON Patch no válida: " + ruta);
+        }
+        return ruta.substring(1);
+    }
+
+    /**
+     * Entrada de la tabla: convierte el valor recibido al tipo del campo y lo
+     * asigna con el setter del modelo. valorSiNulo es lo que guarda el PATCH
+     * clásico cuando recibe null
+     */
+    private record Campo<T>(
+            Function<Object, T> convertidor,
+            BiConsumer<Producto, T> setter,
+            Function<Producto, T> getter,
+            boolean admiteNulo,
+            T valorSiNulo) {
+
+        void aplicar(Producto producto, String nombre, Object valor) {
+            setter.accept(producto, convertir(nombre, valor));
+        }
+
+        boolean coincide(Producto producto, String nombre, Object valor) {
+            T esperado = convertir(nombre, valor);
+            T actual = getter.apply(producto);
+            if (esperado instanceof BigDecimal decimal && actual instanceof BigDecimal otro) {
+                return decimal.compareTo(otro) == 0;
+            }
+            return Objects.equals(esperado, actual);
+        }
+
+        private T convertir(String nombre, Object valor) {
+            if (valor == null) {
+                if (!admiteNulo) {
+                    throw new InvalidProductoException("El campo '" + nombre + "' no puede ser nulo");
+                }
+                return null;
+            }
+            try {
+                return convertidor.apply(valor);
+            } catch (NumberFormatException | ClassCastException e) {
+                throw new InvalidProductoException(
+                        "Error al convertir el campo '" + nombre + "': valor inválido");
+            }
+        }
+    }
+
+    private static String aTexto(Object valor) {
+        return valor.toString();
+    }
+
+    private static BigDecimal aBigDecimal(Object valor) {
+        if (valor instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (valor instanceof Integer || valor instanceof Long || valor instanceof Short || valor instanceof Byte) {
+            return BigDecimal.valueOf(((Number) valor).longValue());
+        }
+        if (valor instanceof BigInteger entero) {
+            return new BigDecimal(entero);
+        }
+        if (valor instanceof Number number) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return new BigDecimal((String) valor);
+    }
+
+    private static Integer aEntero(Object valor) {
+        return valor instanceof Number number
+                ? Integer.valueOf(number.intValue())
+                : Integer.valueOf((String) valor);
+    }
+
+    private static Boolean aBooleano(Object valor) {
+        return valor instanceof Boolean booleano
+                ? booleano
+                : Boolean.valueOf((String) valor);
+    }
+}
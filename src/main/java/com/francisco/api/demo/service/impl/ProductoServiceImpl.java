@@ -1,21 +1,53 @@
 package com.francisco.api.demo.service.impl;
 
-import java.lang.reflect.Field;
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.francisco.api.demo.config.CacheConfig;
+import com.francisco.api.demo.config.MetricasConfig;
+import com.francisco.api.demo.dto.AjusteStock;
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.dto.PaginaBusqueda;
+import com.francisco.api.demo.dto.PaginaCompacta;
+import com.francisco.api.demo.dto.PaginaCursor;
+import com.francisco.api.demo.dto.ProductoResumen;
+import com.francisco.api.demo.dto.StockActual;
+import com.francisco.api.demo.dto.VersionProducto;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
 import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.exception.PrecondicionFallidaException;
 import com.francisco.api.demo.exception.ProductoNotFoundException;
 import com.francisco.api.demo.model.Producto;
 import com.francisco.api.demo.repository.ProductoRepository;
+import com.francisco.api.demo.service.OrdenCursor;
 import com.francisco.api.demo.service.ProductoService;
+import com.francisco.api.demo.service.memoria.IdsInexistentes;
+import com.francisco.api.demo.service.memoria.IndiceBusqueda;
+import com.francisco.api.demo.service.memoria.IndiceStockBajo;
+import com.francisco.api.demo.service.memoria.InvalidacionCacheProductos;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -25,9 +57,31 @@ import lombok.RequiredArgsConstructor;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricasConfig.TIMER_SERVICIO)
 public class ProductoServiceImpl implements ProductoService {
 
+    // Valores iniciales del cursor: anteriores a cualquier registro existente
+    private static final long ID_INICIAL = 0L;
+    private static final LocalDateTime FECHA_INICIAL = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    // Atributos que se pueden pedir con fields= (los mismos que expone Producto en JSON)
+    private static final Set<String> CAMPOS_SELECCIONABLES = Set.of(
+            "id", "nombre", "descripcion", "precio", "stock",
+            "fechaCreacion", "fechaActualizacion", "activo", "version");
+
     private final ProductoRepository productoRepository;
+    private final ProductoValidador productoValidador;
+    private final ProductoParcheador productoParcheador;
+    private final IndiceStockBajo indiceStockBajo;
+    private final IndiceBusqueda indiceBusqueda;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CargadorProductos cargadorProductos;
+    private final IdsInexistentes idsInexistentes;
+    private final CacheManager cacheManager;
+    private final InvalidacionCacheProductos invalidacionCache;
+
+    @Value("${productos.paginacion.tamanio-maximo:100}")
+    private int tamanioMaximoPagina;
 
     @Override
     @Transactional(readOnly = true)
@@ -43,41 +97,258 @@ public class ProductoServiceImpl implements ProductoService {
 
     @Override
     @Transactional(readOnly = true)
+    public PaginaCompacta<ProductoResumen> obtenerResumen(int pagina, int tamanio, boolean soloActivos) {
+        validarPagina(pagina, tamanio, tamanioMaximoPagina);
+
+        // Se pide un registro extra para saber si hay página siguiente sin hacer count
+        List<ProductoResumen> resumenes = productoRepository.buscarResumen(
+                soloActivos, pagina * tamanio, tamanio + 1);
+        return paginaCompacta(resumenes, pagina, tamanio);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCompacta<Map<String, Object>> obtenerCampos(List<String> campos, int pagina, int tamanio,
+            boolean soloActivos) {
+        validarPagina(pagina, tamanio, tamanioMaximoPagina);
+
+        List<Map<String, Object>> filas = productoRepository.buscarCampos(
+                seleccionarCampos(campos), soloActivos, pagina * tamanio, tamanio + 1);
+        return paginaCompacta(filas, pagina, tamanio);
+    }
+
+    // Los helpers estáticos también los usa ProductoServiceShards
+
+    static Set<String> seleccionarCampos(List<String> campos) {
+        Set<String> seleccion = new LinkedHashSet<>();
+        for (String campo : campos) {
+            String nombre = campo.trim();
+            if (!CAMPOS_SELECCIONABLES.contains(nombre)) {
+                throw new InvalidProductoException("Campo desconocido en fields: " + nombre);
+            }
+            seleccion.add(nombre);
+        }
+        if (seleccion.isEmpty()) {
+            throw new InvalidProductoException("fields debe indicar al menos un campo");
+        }
+        return seleccion;
+    }
+
+    static void validarIds(List<Long> ids, int maximo) {
+        if (ids.size() > maximo) {
+            throw new InvalidProductoException("Se pueden pedir como máximo " + maximo + " ids a la vez");
+        }
+        if (ids.contains(null)) {
+            throw new InvalidProductoException("La lista de ids no puede contener valores nulos");
+        }
+    }
+
+    // Productos en el orden de los ids pedidos, sin repetidos; los que no existen se omiten
+    static List<Producto> enOrden(List<Long> ids, Map<Long, Producto> porId) {
+        return new LinkedHashSet<>(ids).stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Un lote bloquea todas sus filas en una sola transacción: se acota como el multi-get
+    static void validarAjustes(List<AjusteStock> ajustes, int maximo) {
+        if (ajustes.size() > maximo) {
+            throw new InvalidProductoException("Se pueden ajustar como máximo " + maximo + " productos a la vez");
+        }
+        for (AjusteStock ajuste : ajustes) {
+            if (ajuste == null || ajuste.getId() == null || ajuste.getDelta() == null) {
+                throw new InvalidProductoException("Cada ajuste debe indicar id y delta");
+            }
+        }
+    }
+
+    static void validarPagina(int pagina, int tamanio, int tamanioMaximoPagina) {
+        if (pagina < 0) {
+            throw new InvalidProductoException("El número de página no puede ser negativo");
+        }
+        if (tamanio < 1 || tamanio > tamanioMaximoPagina) {
+            throw new InvalidProductoException(
+                    "El tamaño de página debe estar entre 1 y " + tamanioMaximoPagina);
+        }
+    }
+
+    static <T> PaginaCompacta<T> paginaCompacta(List<T> elementos, int pagina, int tamanio) {
+        boolean tieneSiguiente = elementos.size() > tamanio;
+        return new PaginaCompacta<>(tieneSiguiente ? elementos.subList(0, tamanio) : elementos,
+                pagina, tamanio, tieneSiguiente);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<Producto> obtenerPorCursor(String cursor, int tamanio, boolean soloActivos,
+            OrdenCursor orden) {
+        if (tamanio < 1 || tamanio > tamanioMaximoPagina) {
+            throw new InvalidProductoException(
+                    "El tamaño de página debe estar entre 1 y " + tamanioMaximoPagina);
+        }
+
+        // Se pide un registro extra para saber si hay página siguiente sin hacer count
+        Pageable limite = PageRequest.of(0, tamanio + 1);
+        String[] partes = decodificarCursor(cursor, orden);
+
+        List<Producto> productos;
+        try {
+            if (orden == OrdenCursor.ID) {
+                Long id = partes == null ? ID_INICIAL : Long.valueOf(partes[0]);
+                productos = soloActivos
+                        ? productoRepository.buscarActivosDespuesDeId(id, limite)
+                        : productoRepository.buscarDespuesDeId(id, limite);
+            } else {
+                LocalDateTime fecha = partes == null ? FECHA_INICIAL : LocalDateTime.parse(partes[0]);
+                Long id = partes == null ? ID_INICIAL : Long.valueOf(partes[1]);
+                productos = soloActivos
+                        ? productoRepository.buscarActivosDespuesDeFecha(fecha, id, limite)
+                        : productoRepository.buscarDespuesDeFecha(fecha, id, limite);
+            }
+        } catch (NumberFormatException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidProductoException("El cursor no es válido");
+        }
+
+        boolean tieneSiguiente = productos.size() > tamanio;
+        if (tieneSiguiente) {
+            productos = productos.subList(0, tamanio);
+        }
+
+        String siguienteCursor = tieneSiguiente
+                ? codificarCursor(productos.get(productos.size() - 1), orden)
+                : null;
+
+        return new PaginaCursor<>(productos, productos.size(), tieneSiguiente, siguienteCursor);
+    }
+
+    /**
+     * Los fallos de caché pasan por CargadorProductos, que deja una sola carga
+     * en curso por id, agrupa ids distintos en una consulta IN y abre su propia
+     * transacción. Los ids que no existen se recuerdan en IdsInexistentes. No
+     * se usa @Cacheable: lo cargado pasa por la comprobación de versión de
+     * InvalidacionCacheProductos para no pisar un desalojo posterior
+     */
+    @Override
     public Producto obtenerPorId(Long id) {
-        return productoRepository.findById(id)
+        Producto enCache = cacheManager.getCache(CacheConfig.PRODUCTOS).get(id, Producto.class);
+        if (enCache != null) {
+            return enCache;
+        }
+        if (idsInexistentes.contiene(id)) {
+            throw new ProductoNotFoundException(id);
+        }
+        Producto producto = cargadorProductos.cargar(id).orElseThrow(() -> {
+            idsInexistentes.agregar(id);
+            return new ProductoNotFoundException(id);
+        });
+        invalidacionCache.guardar(producto);
+        return producto;
+    }
+
+    // Los ids que no están en la caché se cargan con una sola consulta IN y se agregan a la caché
+    // (los que no existen, a la caché negativa)
+    @Override
+    public List<Producto> obtenerPorIds(List<Long> ids) {
+        validarIds(ids, tamanioMaximoPagina);
+
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTOS);
+        Map<Long, Producto> porId = new HashMap<>();
+        Set<Long> faltantes = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Producto enCache = cache.get(id, Producto.class);
+            if (enCache != null) {
+                porId.put(id, enCache);
+            } else if (!idsInexistentes.contiene(id)) {
+                faltantes.add(id);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            for (Producto producto : cargadorProductos.cargarTodos(faltantes)) {
+                invalidacionCache.guardar(producto);
+                porId.put(producto.getId(), producto);
+            }
+            faltantes.stream().filter(id -> !porId.containsKey(id)).forEach(idsInexistentes::agregar);
+        }
+        return enOrden(ids, porId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Producto> buscar(String consulta, boolean soloActivos, int pagina, int tamanio) {
+        validarPagina(pagina, tamanio, tamanioMaximoPagina);
+        Pageable pageable = PageRequest.of(pagina, tamanio);
+
+        IndiceBusqueda.ResultadoBusqueda resultado = indiceBusqueda.buscar(
+                consulta, soloActivos, pageable.getPageNumber(), pageable.getPageSize());
+        if (resultado.ids().isEmpty()) {
+            return new PaginaBusqueda<>(List.of(), pageable, resultado.total(), resultado.totalExacto());
+        }
+
+        // Solo se cargan los productos de la página, respetando el orden del ranking
+        Map<Long, Producto> porId = new HashMap<>();
+        productoRepository.findAllById(resultado.ids()).forEach(p -> porId.put(p.getId(), p));
+        List<Producto> productos = resultado.ids().stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PaginaBusqueda<>(productos, pageable, resultado.total(), resultado.totalExacto());
+    }
+
+    /**
+     * Igual que obtenerPorId: primero la caché de productos y la negativa, y
+     * solo si no están la consulta de la versión. Sin transacción propia, así
+     * un acierto de caché no toma una conexión
+     */
+    @Override
+    public VersionProducto obtenerVersion(Long id) {
+        Producto enCache = cacheManager.getCache(CacheConfig.PRODUCTOS).get(id, Producto.class);
+        if (enCache != null) {
+            return new VersionProducto(enCache.getVersion(), enCache.getFechaActualizacion());
+        }
+        if (idsInexistentes.contiene(id)) {
+            throw new ProductoNotFoundException(id);
+        }
+        return productoRepository.buscarVersion(id).orElseThrow(() -> {
+            idsInexistentes.agregar(id);
+            return new ProductoNotFoundException(id);
+        });
+    }
+
+    /**
+     * Carga el producto a modificar y comprueba la versión esperada (If-Match).
+     * Si coincide, @Version protege el resto de la transacción
+     */
+    private Producto obtenerParaModificar(Long id, Long versionEsperada) {
+        Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new ProductoNotFoundException(id));
+        if (versionEsperada != null && !versionEsperada.equals(producto.getVersion())) {
+            throw new PrecondicionFallidaException("El producto con ID " + id + " está en la versión "
+                    + producto.getVersion() + ", no en la " + versionEsperada);
+        }
+        return producto;
     }
 
     @Override
     @Transactional
     public Producto crear(Producto producto) {
-        validarProducto(producto);
-
-        // Verifica que no exista un producto con el mismo nombre
-        productoRepository.findByNombreIgnoreCase(producto.getNombre())
-                .ifPresent(p -> {
-                    throw new InvalidProductoException(
-                            "Ya existe un producto con el nombre: " + producto.getNombre());
-                });
+        productoValidador.validar(producto);
 
-        return productoRepository.save(producto);
+        // La unicidad del nombre la valida el índice único al hacer flush
+        Producto guardado = productoRepository.saveAndFlush(producto);
+        eventPublisher.publishEvent(ProductoCambiadoEvent.creado(guardado));
+        return guardado;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
     @Transactional
-    public Producto actualizar(Long id, Producto productoActualizado) {
-        Producto productoExistente = obtenerPorId(id);
+    public Producto actualizar(Long id, Producto productoActualizado, Long versionEsperada) {
+        Producto productoExistente = obtenerParaModificar(id, versionEsperada);
+        Producto anterior = productoExistente.copia();
 
-        validarProducto(productoActualizado);
-
-        // Verifica que el nuevo nombre no esté en uso por otro producto
-        if (!productoExistente.getNombre().equalsIgnoreCase(productoActualizado.getNombre())) {
-            productoRepository.findByNombreIgnoreCase(productoActualizado.getNombre())
-                    .ifPresent(p -> {
-                        throw new InvalidProductoException(
-                                "Ya existe otro producto con el nombre: " + productoActualizado.getNombre());
-                    });
-        }
+        productoValidador.validar(productoActualizado);
 
         productoExistente.setNombre(productoActualizado.getNombre());
         productoExistente.setDescripcion(productoActualizado.getDescripcion());
@@ -85,99 +356,181 @@ public class ProductoServiceImpl implements ProductoService {
         productoExistente.setStock(productoActualizado.getStock());
         productoExistente.setActivo(productoActualizado.getActivo());
 
-        return productoRepository.save(productoExistente);
+        return guardarCambios(anterior, productoExistente);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
+    @Transactional
+    public Producto actualizarParcial(Long id, Map<String, Object> campos, Long versionEsperada) {
+        Producto producto = obtenerParaModificar(id, versionEsperada);
+        Producto anterior = producto.copia();
+        productoParcheador.aplicarCampos(producto, campos);
+
+        productoValidador.validar(producto);
+        return guardarCambios(anterior, producto);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
+    @Transactional
+    public Producto aplicarMergePatch(Long id, Map<String, Object> parche, Long versionEsperada) {
+        Producto producto = obtenerParaModificar(id, versionEsperada);
+        Producto anterior = producto.copia();
+        productoParcheador.aplicarMergePatch(producto, parche);
+
+        productoValidador.validar(producto);
+        return guardarCambios(anterior, producto);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
+    @Transactional
+    public Producto aplicarJsonPatch(Long id, List<OperacionPatch> operaciones, Long versionEsperada) {
+        Producto producto = obtenerParaModificar(id, versionEsperada);
+        Producto anterior = producto.copia();
+        productoParcheador.aplicarJsonPatch(producto, operaciones);
+
+        productoValidador.validar(producto);
+        return guardarCambios(anterior, producto);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
     @Transactional
-    public Producto actualizarParcial(Long id, Map<String, Object> campos) {
-        Producto producto = obtenerPorId(id);
+    public StockActual ajustarStock(Long id, int delta) {
+        return new StockActual(id, aplicarAjusteStock(id, delta, LocalDateTime.now()));
+    }
 
-        campos.forEach((campo, valor) -> {
+    @Override
+    @Transactional
+    public List<StockActual> ajustarStockLote(List<AjusteStock> ajustes) {
+        validarAjustes(ajustes, tamanioMaximoPagina);
+
+        // Se agrupan por id y se aplican en orden de id para evitar interbloqueos
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (AjusteStock ajuste : ajustes) {
             try {
-                Field field = Producto.class.getDeclaredField(campo);
-                field.setAccessible(true);
-
-                // Convierte el valor al tipo correcto según el campo
-                Object valorConvertido = convertirValor(campo, valor);
-                field.set(producto, valorConvertido);
-
-            } catch (NoSuchFieldException e) {
-                throw new InvalidProductoException("El campo '" + campo + "' no existe en Producto");
-            } catch (IllegalAccessException e) {
-                throw new InvalidProductoException("No se puede acceder al campo '" + campo + "'");
-            } catch (NumberFormatException e) {
+                deltas.merge(ajuste.getId(), ajuste.getDelta(), Math::addExact);
+            } catch (ArithmeticException e) {
                 throw new InvalidProductoException(
-                        "Error al convertir el campo '" + campo + "': valor inválido");
+                        "La suma de los ajustes del producto " + ajuste.getId() + " excede el rango del stock");
             }
-        });
+        }
 
-        validarProducto(producto);
-        return productoRepository.save(producto);
+        LocalDateTime ahora = LocalDateTime.now();
+        List<StockActual> resultados = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> resultados.add(new StockActual(id, aplicarAjusteStock(id, delta, ahora))));
+        return resultados;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
     @Transactional
-    public void eliminar(Long id) {
-        Producto producto = obtenerPorId(id);
+    public void eliminar(Long id, Long versionEsperada) {
+        Producto producto = obtenerParaModificar(id, versionEsperada);
+        Producto anterior = producto.copia();
         producto.setActivo(false);
-        productoRepository.save(producto);
+
+        Producto guardado = productoRepository.saveAndFlush(producto);
+        eventPublisher.publishEvent(ProductoCambiadoEvent.desactivado(anterior, guardado));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
     @Transactional
-    public void eliminarFisico(Long id) {
-        if (!productoRepository.existsById(id)) {
-            throw new ProductoNotFoundException(id);
-        }
-        productoRepository.deleteById(id);
+    public void eliminarFisico(Long id, Long versionEsperada) {
+        Producto producto = obtenerParaModificar(id, versionEsperada);
+        productoRepository.delete(producto);
+        eventPublisher.publishEvent(ProductoCambiadoEvent.eliminado(producto.copia()));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Producto> obtenerConStockBajo(Integer stockMinimo) {
+    public List<Producto> obtenerConStockBajo(Integer stockMinimo, int pagina, int limite) {
+        validarStockBajo(stockMinimo, pagina, limite, tamanioMaximoPagina);
+
+        // Los umbrales habituales se responden desde memoria, sin consultar la BD
+        if (indiceStockBajo.cubre(stockMinimo)) {
+            return indiceStockBajo.buscar(stockMinimo, pagina, limite);
+        }
+        return productoRepository.findByStockLessThanEqualOrderByStockAscIdAsc(
+                stockMinimo, PageRequest.of(pagina, limite));
+    }
+
+    static void validarStockBajo(Integer stockMinimo, int pagina, int limite, int tamanioMaximoPagina) {
         if (stockMinimo < 0) {
             throw new InvalidProductoException("El stock mínimo no puede ser negativo");
         }
-        return productoRepository.findByStockLessThanEqual(stockMinimo);
+        if (pagina < 0 || limite < 1 || limite > tamanioMaximoPagina) {
+            throw new InvalidProductoException(
+                    "La página no puede ser negativa y el límite debe estar entre 1 y " + tamanioMaximoPagina);
+        }
     }
 
     /**
-     * Valida que los datos del producto sean correctos. Aplica el principio DRY
-     * para evitar duplicar validaciones
+     * Guarda una entidad modificada y publica el cambio con su estado previo.
+     * El flush inmediato hace que un nombre repetido falle dentro del servicio
      */
-    private void validarProducto(Producto producto) {
-        if (producto.getPrecio() != null && producto.getPrecio().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidProductoException("El precio debe ser mayor a 0");
-        }
+    private Producto guardarCambios(Producto anterior, Producto producto) {
+        Producto guardado = productoRepository.saveAndFlush(producto);
+        eventPublisher.publishEvent(ProductoCambiadoEvent.actualizado(anterior, guardado));
+        return guardado;
+    }
 
-        if (producto.getStock() != null && producto.getStock() < 0) {
-            throw new InvalidProductoException("El stock no puede ser negativo");
-        }
+    /**
+     * Ejecuta el UPDATE condicional y devuelve el stock resultante. El UPDATE
+     * devuelve la fila actualizada, así que el evento sale de ella y del
+     * delta sin volver a leer el producto. Si no se actualizó ninguna fila,
+     * distingue entre producto inexistente y stock insuficiente
+     */
+    private int aplicarAjusteStock(Long id, int delta, LocalDateTime fecha) {
+        Producto actual = productoRepository.ajustarStock(id, delta, fecha).orElseThrow(() -> {
+            Integer disponible = productoRepository.buscarStock(id)
+                    .orElseThrow(() -> new ProductoNotFoundException(id));
+            return new InvalidProductoException(
+                    "Stock insuficiente para el producto con ID: " + id + " (disponible: " + disponible + ")");
+        });
+
+        Producto anterior = actual.copia();
+        anterior.setStock(actual.getStock() - delta);
+        anterior.setVersion(actual.getVersion() - 1);
+        eventPublisher.publishEvent(ProductoCambiadoEvent.actualizado(anterior, actual));
+        return actual.getStock();
+    }
+
+    /**
+     * Genera un cursor opaco (Base64 URL) con la clave de orden del último
+     * producto de la página
+     */
+    static String codificarCursor(Producto ultimo, OrdenCursor orden) {
+        String clave = orden == OrdenCursor.ID
+                ? orden.getParametro() + "|" + ultimo.getId()
+                : orden.getParametro() + "|" + ultimo.getFechaActualizacion() + "|" + ultimo.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(clave.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Convierte el valor recibido al tipo apropiado según el campo. Necesario
-     * para el método PATCH
+     * Decodifica el cursor y valida que corresponda al orden solicitado.
+     * Devuelve null cuando no hay cursor (primera página)
      */
-    private Object convertirValor(String campo, Object valor) {
-        return switch (campo) {
-            case "precio" ->
-                valor instanceof Number
-                ? new BigDecimal(valor.toString())
-                : new BigDecimal((String) valor);
-            case "stock" ->
-                valor instanceof Number number
-                ? number.intValue()
-                : Integer.valueOf((String) valor);
-            case "activo" ->
-                valor instanceof Boolean
-                ? valor
-                : Boolean.valueOf((String) valor);
-            case "nombre", "descripcion" ->
-                valor != null ? valor.toString() : "";
-            default ->
-                valor;
-        };
+    private String[] decodificarCursor(String cursor, OrdenCursor orden) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String clave;
+        try {
+            clave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidProductoException("El cursor no es válido");
+        }
+
+        String prefijo = orden.getParametro() + "|";
+        if (!clave.startsWith(prefijo)) {
+            throw new InvalidProductoException("El cursor no corresponde al orden '" + orden.getParametro() + "'");
+        }
+        return clave.substring(prefijo.length()).split("\\|");
     }
 }
@@ -0,0 +1,428 @@
+package com.francisco.api.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.francisco.api.demo.config.MetricasConfig;
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.dto.AjusteStock;
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.dto.PaginaBusqueda;
+import com.francisco.api.demo.dto.PaginaCompacta;
+import com.francisco.api.demo.dto.PaginaCursor;
+import com.francisco.api.demo.dto.ProductoResumen;
+import com.francisco.api.demo.dto.StockActual;
+import com.francisco.api.demo.dto.VersionProducto;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.exception.ProductoNotFoundException;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+import com.francisco.api.demo.service.OrdenCursor;
+import com.francisco.api.demo.service.ProductoService;
+import com.francisco.api.demo.service.memoria.IndiceBusqueda;
+import com.francisco.api.demo.service.memoria.IndiceStockBajo;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ProductoService sobre varios shards (perfil "shards"). Las operaciones de un
+ * id se delegan a ProductoServiceImpl dentro del shard dueño del id, antes de
+ * que empiece su transacción. Los listados, el stock bajo y la búsqueda
+ * consultan todos los shards en paralelo y mezclan los resultados: cada shard
+ * devuelve sus primeras (pagina + 1) * tamanio filas, así que el costo crece
+ * con la profundidad de la página. Por eso la paginación por número llega
+ * hasta "productos.shards.profundidad-maxima" elementos; más allá se recorre
+ * con /api/productos/cursor, que no tiene ese problema
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "productos.shards.urls")
+@Timed(MetricasConfig.TIMER_SERVICIO)
+public class ProductoServiceShards implements ProductoService {
+
+    private static final Comparator<Producto> POR_ID = Comparator.comparing(Producto::getId);
+    private static final Comparator<Producto> POR_STOCK_E_ID =
+            Comparator.comparing(Producto::getStock).thenComparing(Producto::getId);
+    private static final Comparator<Producto> POR_FECHA_E_ID =
+            Comparator.comparing(Producto::getFechaActualizacion).thenComparing(Producto::getId);
+
+    // Propiedades por las que se puede ordenar un listado mezclado, sin reflexión al comparar
+    private static final Map<String, Comparator<Producto>> ORDENABLES = Map.of(
+            "id", Comparator.comparing(Producto::getId),
+            "nombre", Comparator.comparing(Producto::getNombre, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "precio", Comparator.comparing(Producto::getPrecio, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "stock", Comparator.comparing(Producto::getStock, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "activo", Comparator.comparing(Producto::getActivo, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "fechaCreacion", Comparator.comparing(Producto::getFechaCreacion,
+                    Comparator.nullsFirst(Comparator.naturalOrder())),
+            "fechaActualizacion", Comparator.comparing(Producto::getFechaActualizacion,
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+
+    private final ProductoServiceImpl delegado;
+    private final ProductoRepository productoRepository;
+    private final IndiceBusqueda indiceBusqueda;
+    private final IndiceStockBajo indiceStockBajo;
+    private final Shards shards;
+    private final TransactionTemplate lectura;
+
+    @Value("${productos.paginacion.tamanio-maximo:100}")
+    private int tamanioMaximoPagina;
+
+    @Value("${productos.shards.profundidad-maxima:10000}")
+    private int profundidadMaxima;
+
+    public ProductoServiceShards(ProductoServiceImpl delegado, ProductoRepository productoRepository,
+            IndiceBusqueda indiceBusqueda, IndiceStockBajo indiceStockBajo, Shards shards,
+            PlatformTransactionManager transactionManager) {
+        this.delegado = delegado;
+        this.productoRepository = productoRepository;
+        this.indiceBusqueda = indiceBusqueda;
+        this.indiceStockBajo = indiceStockBajo;
+        this.shards = shards;
+        // Las consultas de cada shard van a su réplica, si tiene
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    @Override
+    public Page<Producto> obtenerTodosPaginado(Pageable pageable) {
+        return mezclarPaginas(pageable, productoRepository::findAll);
+    }
+
+    @Override
+    public Page<Producto> obtenerActivosPaginado(Pageable pageable) {
+        return mezclarPaginas(pageable, productoRepository::findByActivoTrue);
+    }
+
+    @Override
+    public PaginaCompacta<ProductoResumen> obtenerResumen(int pagina, int tamanio, boolean soloActivos) {
+        ProductoServiceImpl.validarPagina(pagina, tamanio, tamanioMaximoPagina);
+
+        int desde = validarProfundidad((long) pagina * tamanio);
+        List<List<ProductoResumen>> porShard = shards.enTodos(shard -> leer(() ->
+                productoRepository.buscarResumen(soloActivos, 0, desde + tamanio + 1)));
+        return ProductoServiceImpl.paginaCompacta(
+                mezclar(porShard, Comparator.comparing(ProductoResumen::getId), desde, tamanio + 1),
+                pagina, tamanio);
+    }
+
+    @Override
+    public PaginaCompacta<Map<String, Object>> obtenerCampos(List<String> campos, int pagina, int tamanio,
+            boolean soloActivos) {
+        ProductoServiceImpl.validarPagina(pagina, tamanio, tamanioMaximoPagina);
+
+        // El id hace falta para mezclar; si no se pidió se quita al final
+        Set<String> seleccion = ProductoServiceImpl.seleccionarCampos(campos);
+        boolean conId = !seleccion.add("id");
+
+        int desde = validarProfundidad((long) pagina * tamanio);
+        List<List<Map<String, Object>>> porShard = shards.enTodos(shard -> leer(() ->
+                productoRepository.buscarCampos(seleccion, soloActivos, 0, desde + tamanio + 1)));
+        List<Map<String, Object>> filas = mezclar(porShard,
+                Comparator.comparing((Map<String, Object> fila) -> (Long) fila.get("id")), desde, tamanio + 1);
+        if (!conId) {
+            filas.forEach(fila -> fila.remove("id"));
+        }
+        return ProductoServiceImpl.paginaCompacta(filas, pagina, tamanio);
+    }
+
+    @Override
+    public PaginaCursor<Producto> obtenerPorCursor(String cursor, int tamanio, boolean soloActivos,
+            OrdenCursor orden) {
+        // Cada shard devuelve su página a partir del mismo cursor; la siguiente página global empieza tras el último mezclado
+        List<PaginaCursor<Producto>> paginas = shards.enTodos(shard ->
+                delegado.obtenerPorCursor(cursor, tamanio, soloActivos, orden));
+
+        List<List<Producto>> porShard = paginas.stream().map(PaginaCursor::getContenido).toList();
+        List<Producto> productos = mezclar(porShard, orden == OrdenCursor.ID ? POR_ID : POR_FECHA_E_ID, 0, tamanio + 1);
+
+        boolean tieneSiguiente = productos.size() > tamanio
+                || paginas.stream().anyMatch(PaginaCursor::isTieneSiguiente);
+        if (productos.size() > tamanio) {
+            productos = productos.subList(0, tamanio);
+        }
+
+        String siguienteCursor = tieneSiguiente
+                ? ProductoServiceImpl.codificarCursor(productos.get(productos.size() - 1), orden)
+                : null;
+        return new PaginaCursor<>(productos, productos.size(), tieneSiguiente, siguienteCursor);
+    }
+
+    @Override
+    public Producto obtenerPorId(Long id) {
+        return enShardDe(id, () -> delegado.obtenerPorId(id));
+    }
+
+    // Los ids se agrupan por shard y cada grupo se resuelve (caché + una consulta IN) en su shard
+    @Override
+    public List<Producto> obtenerPorIds(List<Long> ids) {
+        ProductoServiceImpl.validarIds(ids, tamanioMaximoPagina);
+
+        Map<Integer, List<Long>> idsPorShard = agruparPorShard(ids);
+        Map<Long, Producto> porId = new HashMap<>();
+        shards.enTodos(shard -> idsPorShard.containsKey(shard)
+                ? delegado.obtenerPorIds(idsPorShard.get(shard))
+                : List.<Producto>of())
+                .forEach(productos -> productos.forEach(p -> porId.put(p.getId(), p)));
+        return ProductoServiceImpl.enOrden(ids, porId);
+    }
+
+    @Override
+    public VersionProducto obtenerVersion(Long id) {
+        return enShardDe(id, () -> delegado.obtenerVersion(id));
+    }
+
+    @Override
+    public Page<Producto> buscar(String consulta, boolean soloActivos, int pagina, int tamanio) {
+        ProductoServiceImpl.validarPagina(pagina, tamanio, tamanioMaximoPagina);
+        Pageable pageable = PageRequest.of(pagina, tamanio);
+
+        // El índice en memoria tiene los productos de todos los shards; solo la carga se reparte
+        IndiceBusqueda.ResultadoBusqueda resultado = indiceBusqueda.buscar(
+                consulta, soloActivos, pageable.getPageNumber(), pageable.getPageSize());
+        if (resultado.ids().isEmpty()) {
+            return new PaginaBusqueda<>(List.of(), pageable, resultado.total(), resultado.totalExacto());
+        }
+
+        Map<Integer, List<Long>> idsPorShard = agruparPorShard(resultado.ids());
+
+        Map<Long, Producto> porId = new HashMap<>();
+        shards.enTodos(shard -> idsPorShard.containsKey(shard)
+                ? leer(() -> productoRepository.findAllById(idsPorShard.get(shard)))
+                : List.<Producto>of())
+                .forEach(productos -> productos.forEach(p -> porId.put(p.getId(), p)));
+
+        List<Producto> productos = resultado.ids().stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PaginaBusqueda<>(productos, pageable, resultado.total(), resultado.totalExacto());
+    }
+
+    @Override
+    public Producto crear(Producto producto) {
+        validarNombreLibre(producto.getNombre(), null);
+        return shards.en(shards.paraAlta(), () -> delegado.crear(producto));
+    }
+
+    @Override
+    public Producto actualizar(Long id, Producto producto, Long versionEsperada) {
+        validarNombreLibre(producto.getNombre(), id);
+        return enShardDe(id, () -> delegado.actualizar(id, producto, versionEsperada));
+    }
+
+    @Override
+    public Producto actualizarParcial(Long id, Map<String, Object> campos, Long versionEsperada) {
+        validarNombreLibre(campos.get("nombre"), id);
+        return enShardDe(id, () -> delegado.actualizarParcial(id, campos, versionEsperada));
+    }
+
+    @Override
+    public Producto aplicarMergePatch(Long id, Map<String, Object> parche, Long versionEsperada) {
+        validarNombreLibre(parche.get("nombre"), id);
+        return enShardDe(id, () -> delegado.aplicarMergePatch(id, parche, versionEsperada));
+    }
+
+    @Override
+    public Producto aplicarJsonPatch(Long id, List<OperacionPatch> operaciones, Long versionEsperada) {
+        for (OperacionPatch operacion : operaciones) {
+            if ("/nombre".equals(operacion.getPath()) && !"test".equals(operacion.getOp())) {
+                validarNombreLibre(operacion.getValue(), id);
+            }
+        }
+        return enShardDe(id, () -> delegado.aplicarJsonPatch(id, operaciones, versionEsperada));
+    }
+
+    @Override
+    public StockActual ajustarStock(Long id, int delta) {
+        return enShardDe(id, () -> delegado.ajustarStock(id, delta));
+    }
+
+    /**
+     * Un lote dentro de un shard es todo o nada. Si abarca varios se aplica
+     * shard por shard y, si uno falla, los ya confirmados se revierten con los
+     * ajustes inversos (compensación). Mientras tanto otras peticiones pueden
+     * ver el estado intermedio
+     */
+    @Override
+    public List<StockActual> ajustarStockLote(List<AjusteStock> ajustes) {
+        ProductoServiceImpl.validarAjustes(ajustes, tamanioMaximoPagina);
+
+        Map<Integer, List<AjusteStock>> porShard = new TreeMap<>();
+        for (AjusteStock ajuste : ajustes) {
+            int shard = shards.deId(ajuste.getId());
+            if (shard < 0) {
+                throw new ProductoNotFoundException(ajuste.getId());
+            }
+            porShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(ajuste);
+        }
+
+        List<StockActual> resultados = new ArrayList<>();
+        Map<Integer, List<AjusteStock>> aplicados = new TreeMap<>();
+        try {
+            porShard.forEach((shard, grupo) -> {
+                resultados.addAll(shards.en(shard, () -> delegado.ajustarStockLote(grupo)));
+                aplicados.put(shard, grupo);
+            });
+        } catch (RuntimeException e) {
+            compensar(aplicados);
+            throw e;
+        }
+
+        resultados.sort(Comparator.comparing(StockActual::getId));
+        return resultados;
+    }
+
+    private void compensar(Map<Integer, List<AjusteStock>> aplicados) {
+        aplicados.forEach((shard, grupo) -> {
+            List<AjusteStock> inversos = grupo.stream()
+                    .map(ajuste -> new AjusteStock(ajuste.getId(), -ajuste.getDelta()))
+                    .toList();
+            try {
+                shards.en(shard, () -> delegado.ajustarStockLote(inversos));
+            } catch (RuntimeException e) {
+                log.error("No se pudo revertir el ajuste de stock en el shard {}: {}", shard, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void eliminar(Long id, Long versionEsperada) {
+        enShardDe(id, () -> {
+            delegado.eliminar(id, versionEsperada);
+            return null;
+        });
+    }
+
+    @Override
+    public void eliminarFisico(Long id, Long versionEsperada) {
+        enShardDe(id, () -> {
+            delegado.eliminarFisico(id, versionEsperada);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Producto> obtenerConStockBajo(Integer stockMinimo, int pagina, int limite) {
+        ProductoServiceImpl.validarStockBajo(stockMinimo, pagina, limite, tamanioMaximoPagina);
+        int desde = validarProfundidad((long) pagina * limite);
+
+        // El conjunto en memoria ya tiene los productos de todos los shards
+        if (indiceStockBajo.cubre(stockMinimo)) {
+            return indiceStockBajo.buscar(stockMinimo, pagina, limite);
+        }
+
+        List<List<Producto>> porShard = shards.enTodos(shard -> leer(() ->
+                productoRepository.findByStockLessThanEqualOrderByStockAscIdAsc(
+                        stockMinimo, PageRequest.of(0, desde + limite))));
+        return mezclar(porShard, POR_STOCK_E_ID, desde, limite);
+    }
+
+    /**
+     * Cada shard lee desde su primera fila hasta el final de la página pedida:
+     * sin este tope una página lejana carga millones de filas por shard
+     */
+    private int validarProfundidad(long desde) {
+        if (desde > profundidadMaxima) {
+            throw new InvalidProductoException("Con varios shards la paginación por número llega hasta el elemento "
+                    + profundidadMaxima + "; para recorrer más allá use /api/productos/cursor");
+        }
+        return (int) desde;
+    }
+
+    private <T> T enShardDe(Long id, Supplier<T> operacion) {
+        int shard = shards.deId(id);
+        if (shard < 0) {
+            throw new ProductoNotFoundException(id);
+        }
+        return shards.en(shard, operacion);
+    }
+
+    // Los ids fuera de todo rango (-1) no existen y nunca se consultan
+    private Map<Integer, List<Long>> agruparPorShard(List<Long> ids) {
+        Map<Integer, List<Long>> idsPorShard = new HashMap<>();
+        ids.forEach(id -> idsPorShard.computeIfAbsent(shards.deId(id), s -> new ArrayList<>()).add(id));
+        return idsPorShard;
+    }
+
+    private <T> T leer(Supplier<T> consulta) {
+        return lectura.execute(estado -> consulta.get());
+    }
+
+    /**
+     * El índice único del nombre solo cubre su shard: antes de escribir se
+     * busca el nombre en todos. Dos altas simultáneas con el mismo nombre en
+     * shards distintos pueden pasar las dos (no hay bloqueo global)
+     */
+    private void validarNombreLibre(Object nombre, Long id) {
+        if (!(nombre instanceof String texto) || texto.isBlank()) {
+            return;
+        }
+
+        Set<String> nombres = Set.of(Producto.normalizarNombre(texto));
+        boolean ocupado = shards.enTodos(shard -> leer(() -> productoRepository.buscarIdYNombre(Set.of(), nombres)))
+                .stream()
+                .flatMap(List::stream)
+                .anyMatch(fila -> !fila[0].equals(id));
+        if (ocupado) {
+            throw new InvalidProductoException("Ya existe un producto con ese nombre");
+        }
+    }
+
+    private Page<Producto> mezclarPaginas(Pageable pageable, Function<Pageable, Page<Producto>> consulta) {
+        // Orden estable entre shards: el pedido y, al final, el id
+        Sort orden = pageable.getSort().and(Sort.by("id"));
+        Comparator<Producto> comparador = comparador(orden);
+        int desde = validarProfundidad(pageable.getOffset());
+        Pageable primeras = PageRequest.of(0, desde + pageable.getPageSize(), orden);
+
+        List<Page<Producto>> paginas = shards.enTodos(shard -> leer(() -> consulta.apply(primeras)));
+        long total = paginas.stream().mapToLong(Page::getTotalElements).sum();
+        List<Producto> contenido = mezclar(paginas.stream().map(Page::getContent).toList(),
+                comparador, desde, pageable.getPageSize());
+        return new PageImpl<>(contenido, pageable, total);
+    }
+
+    private static <T> List<T> mezclar(List<List<T>> porShard, Comparator<? super T> orden, long saltar, int limite) {
+        return porShard.stream()
+                .flatMap(List::stream)
+                .sorted(orden)
+                .skip(saltar)
+                .limit(limite)
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    private static Comparator<Producto> comparador(Sort orden) {
+        Comparator<Producto> resultado = (a, b) -> 0;
+        for (Sort.Order criterio : orden) {
+            Comparator<Producto> porCriterio = ORDENABLES.get(criterio.getProperty());
+            if (porCriterio == null) {
+                throw new InvalidProductoException("No se puede ordenar por: " + criterio.getProperty());
+            }
+            resultado = resultado.thenComparing(criterio.isAscending() ? porCriterio : porCriterio.reversed());
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,26 @@
+package com.francisco.api.demo.service.impl;
+
+import java.math.BigDecimal;
+
+import org.springframework.stereotype.Component;
+
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.model.Producto;
+
+/**
+ * Reglas de negocio de un producto compartidas por los servicios. Aplica el
+ * principio DRY para evitar duplicar validaciones
+ */
+@Component
+public class ProductoValidador {
+
+    public void validar(Producto producto) {
+        if (producto.getPrecio() != null && producto.getPrecio().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidProductoException("El precio debe ser mayor a 0");
+        }
+
+        if (producto.getStock() != null && producto.getStock() < 0) {
+            throw new InvalidProductoException("El stock no puede ser negativo");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.francisco.api.demo.service.memoria;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caché de las primeras páginas de los listados ya serializadas a JSON y
+ * comprimidas con gzip. Cada entrada guarda la versión del catálogo con la que
+ * se construyó y solo sirve mientras esa versión siga vigente: cualquier
+ * escritura confirmada la invalida sin recorrer la caché. La versión se lee
+ * antes de consultar, así una página construida durante una escritura nunca
+ * queda marcada como actual
+ */
+@Component
+public class CachePaginas {
+
+    private final VersionCatalogo versionCatalogo;
+    private final ObjectMapper objectMapper;
+    private final int paginasCacheadas;
+    private final Map<Clave, PaginaSerializada> paginas = new ConcurrentHashMap<>();
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public CachePaginas(VersionCatalogo versionCatalogo, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${productos.cache-paginas.paginas:5}") int paginasCacheadas) {
+        this.versionCatalogo = versionCatalogo;
+        this.objectMapper = objectMapper;
+        this.paginasCacheadas = paginasCacheadas;
+        this.aciertos = meterRegistry.counter("productos.cache.paginas", "resultado", "acierto");
+        this.fallos = meterRegistry.counter("productos.cache.paginas", "resultado", "fallo");
+    }
+
+    /**
+     * Devuelve la página serializada; si no está en caché (o quedó obsoleta) la
+     * construye con el proveedor. Las páginas posteriores a las primeras N se
+     * serializan sin guardarse ni comprimirse
+     */
+    public PaginaSerializada obtener(String listado, int pagina, Supplier<?> proveedor) {
+        if (pagina >= paginasCacheadas) {
+            return new PaginaSerializada(serializar(proveedor.get()), null);
+        }
+
+        Clave clave = new Clave(listado, pagina);
+        long version = versionCatalogo.version();
+        PaginaSerializada guardada = paginas.get(clave);
+        if (guardada != null && guardada.version() == version) {
+            aciertos.increment();
+            return guardada;
+        }
+
+        fallos.increment();
+        byte[] json = serializar(proveedor.get());
+        PaginaSerializada nueva = new PaginaSerializada(version, json, comprimir(json));
+        paginas.put(clave, nueva);
+        return nueva;
+    }
+
+    private byte[] serializar(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la página", e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    private record Clave(String listado, int pagina) {
+    }
+
+    /**
+     * Cuerpo JSON y, si la página está cacheada, su versión gzip (null si no)
+     */
+    public record PaginaSerializada(long version, byte[] json, byte[] gzip) {
+
+        PaginaSerializada(byte[] json, byte[] gzip) {
+            this(-1, json, gzip);
+        }
+    }
+}
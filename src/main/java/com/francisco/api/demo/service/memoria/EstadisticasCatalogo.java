@@ -0,0 +1,205 @@
+package com.francisco.api.demo.service.memoria;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.dto.EstadisticasProductos;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Estadísticas del catálogo mantenidas en memoria: contadores LongAdder que
+ * cada escritura confirmada ajusta con la diferencia entre el estado anterior
+ * y el actual, y los precios como multiconjunto ordenado (mínimo y máximo sin
+ * recorrer nada). Se cargan al iniciar con una consulta agregada y se
+ * reconcilian con la BD cada cierto tiempo, lo que corrige los cambios hechos
+ * fuera de la aplicación. Las escrituras que se confirman mientras corre esa
+ * consulta pueden quedar mal contadas hasta la siguiente reconciliación
+ */
+@Slf4j
+@Component
+@Lazy(false) // los @Scheduled solo se registran si el bean se crea
+public class EstadisticasCatalogo {
+
+    private final ProductoRepository productoRepository;
+    private final Shards shards;
+    private final int[] limitesStock;
+    private final AtomicReference<Acumulado> actual;
+    private volatile Instant ultimaReconciliacion;
+
+    public EstadisticasCatalogo(ProductoRepository productoRepository, Shards shards,
+            @Value("${productos.estadisticas.tramos-stock:0,10,50,100}") int[] limitesStock) {
+        this.productoRepository = productoRepository;
+        this.shards = shards;
+        this.limitesStock = limitesStock;
+        this.actual = new AtomicReference<>(new Acumulado(limitesStock.length + 1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        actual.set(consultar());
+        ultimaReconciliacion = Instant.now();
+    }
+
+    @Scheduled(initialDelayString = "${productos.estadisticas.reconciliacion:5m}",
+            fixedDelayString = "${productos.estadisticas.reconciliacion:5m}")
+    public void reconciliar() {
+        try {
+            Acumulado nuevo = consultar();
+            Acumulado previo = actual.getAndSet(nuevo);
+            ultimaReconciliacion = Instant.now();
+
+            long desvioTotal = nuevo.total.sum() - previo.total.sum();
+            long desvioStock = nuevo.stock.sum() - previo.stock.sum();
+            if (desvioTotal != 0 || desvioStock != 0) {
+                log.info("Estadísticas reconciliadas con la BD: desvío de {} productos y {} unidades de stock",
+                        desvioTotal, desvioStock);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron reconciliar las estadísticas del catálogo", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        Acumulado acumulado = actual.get();
+        if (evento.anterior() != null) {
+            aplicar(acumulado, evento.anterior(), -1);
+        }
+        if (evento.actual() != null) {
+            aplicar(acumulado, evento.actual(), 1);
+        }
+    }
+
+    // Solo lee contadores: el costo no depende del tamaño del catálogo
+    public EstadisticasProductos obtener() {
+        Acumulado acumulado = actual.get();
+        long total = acumulado.total.sum();
+        long activos = acumulado.activos.sum();
+
+        Map<String, Long> distribucion = new LinkedHashMap<>();
+        for (int tramo = 0; tramo < acumulado.tramos.length; tramo++) {
+            distribucion.put(etiqueta(tramo), acumulado.tramos[tramo].sum());
+        }
+
+        Map.Entry<Long, Long> minimo = acumulado.precios.firstEntry();
+        Map.Entry<Long, Long> maximo = acumulado.precios.lastEntry();
+        BigDecimal promedio = total > 0
+                ? BigDecimal.valueOf(acumulado.sumaPrecios.sum(), 2).divide(BigDecimal.valueOf(total), 2,
+                        RoundingMode.HALF_UP)
+                : null;
+
+        return new EstadisticasProductos(total, activos, total - activos, acumulado.stock.sum(),
+                BigDecimal.valueOf(acumulado.valor.sum(), 2),
+                minimo != null ? BigDecimal.valueOf(minimo.getKey(), 2) : null,
+                promedio,
+                maximo != null ? BigDecimal.valueOf(maximo.getKey(), 2) : null,
+                distribucion, ultimaReconciliacion);
+    }
+
+    // Una consulta agrupada por precio y tramo de stock en cada shard
+    private Acumulado consultar() {
+        Acumulado acumulado = new Acumulado(limitesStock.length + 1);
+        List<List<Object[]>> porShard = shards.enTodos(shard ->
+                productoRepository.agregarPorPrecioYTramo(limitesStock));
+        for (List<Object[]> filas : porShard) {
+            for (Object[] fila : filas) {
+                long precio = centavos((BigDecimal) fila[0]);
+                int tramo = ((Number) fila[1]).intValue();
+                long cantidad = ((Number) fila[2]).longValue();
+                long stock = ((Number) fila[4]).longValue();
+
+                acumulado.total.add(cantidad);
+                acumulado.activos.add(((Number) fila[3]).longValue());
+                acumulado.stock.add(stock);
+                acumulado.valor.add(precio * stock);
+                acumulado.sumaPrecios.add(precio * cantidad);
+                acumulado.tramos[tramo].add(cantidad);
+                acumulado.precios.merge(precio, cantidad, EstadisticasCatalogo::sumarSinCeros);
+            }
+        }
+        return acumulado;
+    }
+
+    private void aplicar(Acumulado acumulado, Producto producto, int signo) {
+        long precio = centavos(producto.getPrecio());
+        int stock = producto.getStock();
+
+        acumulado.total.add(signo);
+        if (Boolean.TRUE.equals(producto.getActivo())) {
+            acumulado.activos.add(signo);
+        }
+        acumulado.stock.add((long) signo * stock);
+        acumulado.valor.add(signo * precio * stock);
+        acumulado.sumaPrecios.add(signo * precio);
+        acumulado.tramos[tramo(stock)].add(signo);
+        acumulado.precios.merge(precio, (long) signo, EstadisticasCatalogo::sumarSinCeros);
+    }
+
+    private int tramo(int stock) {
+        for (int i = 0; i < limitesStock.length; i++) {
+            if (stock <= limitesStock[i]) {
+                return i;
+            }
+        }
+        return limitesStock.length;
+    }
+
+    // "0", "1-10", "11-50", ..., "101+" con los límites por defecto
+    private String etiqueta(int tramo) {
+        if (tramo == limitesStock.length) {
+            return (limitesStock[tramo - 1] + 1) + "+";
+        }
+        int desde = tramo == 0 ? 0 : limitesStock[tramo - 1] + 1;
+        return desde == limitesStock[tramo] ? String.valueOf(desde) : desde + "-" + limitesStock[tramo];
+    }
+
+    private static long centavos(BigDecimal precio) {
+        return precio.movePointRight(2).longValue();
+    }
+
+    // Un precio sin productos sale del multiconjunto (merge quita la clave si se devuelve null)
+    private static Long sumarSinCeros(Long previo, Long delta) {
+        long suma = previo + delta;
+        return suma == 0 ? null : suma;
+    }
+
+    private static final class Acumulado {
+
+        private final LongAdder total = new LongAdder();
+        private final LongAdder activos = new LongAdder();
+        private final LongAdder stock = new LongAdder();
+        // En centavos
+        private final LongAdder valor = new LongAdder();
+        private final LongAdder sumaPrecios = new LongAdder();
+        private final LongAdder[] tramos;
+        // Precio en centavos → cantidad de productos con ese precio
+        private final ConcurrentSkipListMap<Long, Long> precios = new ConcurrentSkipListMap<>();
+
+        private Acumulado(int cantidadTramos) {
+            tramos = new LongAdder[cantidadTramos];
+            for (int i = 0; i < cantidadTramos; i++) {
+                tramos[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.francisco.api.demo.service.memoria;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché negativa: ids consultados hace poco que no existen. Los 404 repetidos
+ * (bots que recorren ids) se responden sin ir a la BD. Cada escritura
+ * confirmada quita su id, porque un alta puede recibir un id que antes dio
+ * 404; una consulta que termine justo después de esa alta puede volver a
+ * marcarlo, como mucho durante el TTL. Con TTL 0 está desactivada
+ */
+@Component
+public class IdsInexistentes {
+
+    private final boolean activa;
+    private final Cache<Long, Boolean> ids;
+
+    public IdsInexistentes(MeterRegistry meterRegistry,
+            @Value("${productos.inexistentes.ttl:30s}") Duration ttl,
+            @Value("${productos.inexistentes.tamanio-maximo:100000}") long tamanioMaximo) {
+        this.activa = !ttl.isZero();
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Mismas etiquetas que las cachés de Spring: Prometheus exige el mismo conjunto por nombre de métrica
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, "productos-inexistentes",
+                Tags.of("cache.manager", "idsInexistentes", "name", "productos-inexistentes"));
+    }
+
+    public boolean contiene(Long id) {
+        return activa && ids.getIfPresent(id) != null;
+    }
+
+    public void agregar(Long id) {
+        if (activa) {
+            ids.put(id, Boolean.TRUE);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        ids.invalidate(evento.id());
+    }
+}
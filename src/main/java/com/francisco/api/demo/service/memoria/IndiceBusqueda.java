@@ -0,0 +1,310 @@
+package com.francisco.api.demo.service.memoria;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+
+/**
+ * Índice invertido en memoria sobre nombre y descripción. Cada término
+ * normalizado (minúsculas, sin acentos) apunta a los ids que lo contienen y el
+ * diccionario ordenado de términos permite resolver prefijos (typeahead) sin
+ * recorrer la tabla. Se construye antes de abrir el puerto HTTP y se mantiene
+ * con los eventos de escritura después del commit. @Lazy(false): con
+ * inicialización diferida Spring no llama a afterSingletonsInstantiated y el
+ * índice quedaría vacío
+ */
+@Component
+@Lazy(false)
+public class IndiceBusqueda implements SmartInitializingSingleton {
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    // Pesos de ranking: coincidencia en el nombre pesa más que en la descripción
+    private static final int EXACTO_NOMBRE = 10;
+    private static final int PREFIJO_NOMBRE = 6;
+    private static final int EXACTO_DESCRIPCION = 3;
+    private static final int PREFIJO_DESCRIPCION = 1;
+
+    // Menor puntaje primero y, a igual puntaje, mayor id: la cima del montículo es la que sale
+    private static final Comparator<Puntaje> PEOR_PRIMERO =
+            Comparator.comparingInt(Puntaje::puntaje).thenComparing(Puntaje::id, Comparator.reverseOrder());
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate transaccionLectura;
+    private final Shards shards;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final NavigableSet<String> terminos = new ConcurrentSkipListSet<>();
+    private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+    private final int maxCandidatos;
+
+    public IndiceBusqueda(ProductoRepository productoRepository, PlatformTransactionManager transactionManager,
+            Shards shards, @Value("${productos.busqueda.max-candidatos:1000}") int maxCandidatos) {
+        this.productoRepository = productoRepository;
+        this.shards = shards;
+        this.maxCandidatos = maxCandidatos;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+    }
+
+    /**
+     * Reconstruye el índice completo con una proyección escalar (sin entidades
+     * administradas) antes de que la aplicación empiece a recibir tráfico. Con
+     * varios shards se recorren todos en paralelo
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        shards.enCada(shard -> transaccionLectura.executeWithoutResult(estado -> {
+            try (Stream<Object[]> filas = productoRepository.recorrerTextos()) {
+                filas.forEach(fila -> indexar(new Documento(
+                        (Long) fila[0], tokenizar((String) fila[1]), tokenizar((String) fila[2]),
+                        (Boolean) fila[3], (Long) fila[4])));
+            }
+        }));
+    }
+
+    @TransactionalEventListener
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        Producto actual = evento.actual();
+        if (actual == null) {
+            eliminar(evento.id());
+            return;
+        }
+        indexar(new Documento(actual.getId(), tokenizar(actual.getNombre()),
+                tokenizar(actual.getDescripcion()), actual.getActivo(), actual.getVersion()));
+    }
+
+    /**
+     * Busca productos cuyos términos empiecen por cada palabra de la consulta
+     * (todas deben coincidir). Devuelve los ids de la página pedida ordenados
+     * por relevancia. Solo se recorren los postings de la palabra con menos
+     * coincidencias, empezando por su término exacto; las demás palabras se
+     * comprueban con los términos de cada candidato, y un montículo acotado
+     * conserva los (pagina + 1) * tamanio mejores en lugar de ordenar todos.
+     *
+     * Un prefijo común ("vol") coincide con casi todo el catálogo: el recorrido
+     * se corta después de max(fin de la página, "productos.busqueda.max-candidatos")
+     * coincidencias. En ese caso el ranking es el de esas coincidencias y el
+     * total es una cota inferior (totalExacto false)
+     */
+    public ResultadoBusqueda buscar(String consulta, boolean soloActivos, int pagina, int tamanio) {
+        Set<String> palabras = tokenizar(consulta);
+        if (palabras.isEmpty()) {
+            return new ResultadoBusqueda(List.of(), 0, true);
+        }
+
+        List<Set<Long>> guia = null;
+        long coincidenciasGuia = Long.MAX_VALUE;
+        for (String palabra : palabras) {
+            List<Set<Long>> listas = new ArrayList<>();
+            long coincidencias = 0;
+            for (String termino : expandir(palabra)) {
+                Set<Long> ids = postings.get(termino);
+                if (ids != null) {
+                    listas.add(ids);
+                    coincidencias += ids.size();
+                }
+                // Ya tiene coincidencias y no puede ser la guía: no hace falta contar el resto
+                if (coincidencias >= coincidenciasGuia) {
+                    break;
+                }
+            }
+            if (coincidencias == 0) {
+                return new ResultadoBusqueda(List.of(), 0, true);
+            }
+            if (coincidencias < coincidenciasGuia) {
+                guia = listas;
+                coincidenciasGuia = coincidencias;
+            }
+        }
+
+        int desde = (int) Math.min((long) pagina * tamanio, Integer.MAX_VALUE);
+        int hasta = (int) Math.min((long) desde + tamanio, Integer.MAX_VALUE);
+        long tope = Math.max(hasta, maxCandidatos);
+        PriorityQueue<Puntaje> mejores = new PriorityQueue<>(PEOR_PRIMERO);
+        // Un documento puede aparecer en varias expansiones del prefijo
+        Set<Long> vistos = guia.size() > 1 ? new HashSet<>() : null;
+        long total = 0;
+        boolean totalExacto = true;
+        recorrido:
+        for (Set<Long> ids : guia) {
+            for (Long id : ids) {
+                if (vistos != null && !vistos.add(id)) {
+                    continue;
+                }
+                Documento documento = documentos.get(id);
+                if (documento == null || (soloActivos && !Boolean.TRUE.equals(documento.activo()))) {
+                    continue;
+                }
+                int puntaje = puntuar(documento, palabras);
+                if (puntaje < 0) {
+                    continue;
+                }
+                if (total == tope) {
+                    totalExacto = false;
+                    break recorrido;
+                }
+                total++;
+                mejores.offer(new Puntaje(id, puntaje));
+                if (mejores.size() > hasta) {
+                    mejores.poll();
+                }
+            }
+        }
+
+        List<Puntaje> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(PEOR_PRIMERO.reversed());
+        List<Long> ids = ordenados.stream()
+                .skip(desde)
+                .map(Puntaje::id)
+                .toList();
+        return new ResultadoBusqueda(ids, total, totalExacto);
+    }
+
+    private void indexar(Documento nuevo) {
+        documentos.compute(nuevo.id(), (id, previo) -> {
+            // Un evento atrasado (versión menor a la ya indexada) se descarta
+            if (previo != null && previo.version() != null && nuevo.version() != null
+                    && previo.version() > nuevo.version()) {
+                return previo;
+            }
+            Set<String> anteriores = previo != null ? previo.terminos() : Set.of();
+            Set<String> actuales = nuevo.terminos();
+            anteriores.stream().filter(t -> !actuales.contains(t)).forEach(t -> quitarPosting(t, id));
+            actuales.stream().filter(t -> !anteriores.contains(t)).forEach(t -> agregarPosting(t, id));
+            return nuevo;
+        });
+    }
+
+    private void eliminar(Long id) {
+        documentos.computeIfPresent(id, (clave, previo) -> {
+            previo.terminos().forEach(t -> quitarPosting(t, clave));
+            return null;
+        });
+    }
+
+    private void agregarPosting(String termino, Long id) {
+        postings.compute(termino, (clave, ids) -> {
+            Set<Long> destino = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            destino.add(id);
+            terminos.add(clave);
+            return destino;
+        });
+    }
+
+    private void quitarPosting(String termino, Long id) {
+        postings.computeIfPresent(termino, (clave, ids) -> {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                terminos.remove(clave);
+                return null;
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Términos del diccionario que empiezan con la palabra, en orden: el
+     * primero es la palabra misma si está. Una sola letra solo coincide de
+     * forma exacta para no expandir a medio diccionario
+     */
+    private Collection<String> expandir(String palabra) {
+        if (palabra.length() < 2) {
+            return List.of(palabra);
+        }
+        return terminos.subSet(palabra, true, palabra + Character.MAX_VALUE, false);
+    }
+
+    // -1 si alguna palabra no coincide con el documento
+    private int puntuar(Documento documento, Set<String> palabras) {
+        int puntaje = 0;
+        for (String palabra : palabras) {
+            int mejor = Math.max(
+                    coincidencia(documento.nombre(), palabra, EXACTO_NOMBRE, PREFIJO_NOMBRE),
+                    coincidencia(documento.descripcion(), palabra, EXACTO_DESCRIPCION, PREFIJO_DESCRIPCION));
+            if (mejor == 0) {
+                return -1;
+            }
+            puntaje += mejor;
+        }
+        return puntaje;
+    }
+
+    private int coincidencia(Set<String> tokens, String palabra, int exacto, int prefijo) {
+        if (tokens.contains(palabra)) {
+            return exacto;
+        }
+        if (palabra.length() < 2) {
+            return 0;
+        }
+        for (String token : tokens) {
+            if (token.startsWith(palabra)) {
+                return prefijo;
+            }
+        }
+        return 0;
+    }
+
+    static Set<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return Set.of();
+        }
+        String normalizado = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARADORES.split(normalizado)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Documento(Long id, Set<String> nombre, Set<String> descripcion, Boolean activo, Long version) {
+
+        Set<String> terminos() {
+            Set<String> todos = new LinkedHashSet<>(nombre);
+            todos.addAll(descripcion);
+            return todos;
+        }
+    }
+
+    private record Puntaje(Long id, int puntaje) {
+    }
+
+    /**
+     * Página de ids ordenada por relevancia y total de coincidencias (una cota
+     * inferior si totalExacto es false)
+     */
+    public record ResultadoBusqueda(List<Long> ids, long total, boolean totalExacto) {
+    }
+}
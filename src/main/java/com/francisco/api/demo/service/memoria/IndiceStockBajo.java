@@ -0,0 +1,162 @@
+package com.francisco.api.demo.service.memoria;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Conjunto en memoria de los productos con stock menor o igual al umbral
+ * configurado. Se carga una vez al iniciar y después se mantiene con los
+ * eventos de escritura (después del commit), así las consultas frecuentes de
+ * stock bajo no tocan la base de datos. También notifica por SSE cuando un
+ * producto cruza el umbral.
+ *
+ * Los eventos de un mismo id pueden llegar desordenados. Se recuerda la última
+ * versión vista de cada id modificado, esté o no en el conjunto, durante
+ * "productos.stock-bajo.versiones.ttl": si no, un evento viejo podría volver a
+ * agregar un producto que ya se repuso
+ */
+@Component
+public class IndiceStockBajo {
+
+    private static final Comparator<Producto> POR_STOCK_E_ID =
+            Comparator.comparing(Producto::getStock).thenComparing(Producto::getId);
+
+    private final ProductoRepository productoRepository;
+    private final Shards shards;
+    // Por nombre: con @EnableScheduling también existe el taskScheduler
+    private final TaskExecutor applicationTaskExecutor;
+
+    private final Map<Long, Producto> productos = new ConcurrentHashMap<>();
+    // Los mismos productos en el orden de las consultas: se recorre solo el principio
+    private final NavigableSet<Producto> ordenados = new ConcurrentSkipListSet<>(POR_STOCK_E_ID);
+    // Long.MAX_VALUE para un producto borrado
+    private final Map<Long, Long> versiones;
+    private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+    private volatile boolean cargado;
+
+    @Value("${productos.stock-bajo.umbral:10}")
+    private int umbral;
+
+    @Value("${productos.stock-bajo.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    public IndiceStockBajo(ProductoRepository productoRepository, Shards shards,
+            TaskExecutor applicationTaskExecutor,
+            @Value("${productos.stock-bajo.versiones.ttl:1m}") Duration ttlVersiones) {
+        this.productoRepository = productoRepository;
+        this.shards = shards;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.versiones = Caffeine.newBuilder()
+                .expireAfterWrite(ttlVersiones)
+                .<Long, Long>build()
+                .asMap();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        shards.enCada(shard -> productoRepository.findByStockLessThanEqual(umbral)
+                .forEach(producto -> aplicar(producto.getId(), producto.copia())));
+        cargado = true;
+    }
+
+    /**
+     * Indica si la consulta se puede responder desde memoria
+     */
+    public boolean cubre(int stockMinimo) {
+        return cargado && stockMinimo <= umbral;
+    }
+
+    public List<Producto> buscar(int stockMinimo, int pagina, int limite) {
+        return ordenados.stream()
+                .takeWhile(producto -> producto.getStock() <= stockMinimo)
+                .skip((long) pagina * limite)
+                .limit(limite)
+                .toList();
+    }
+
+    @TransactionalEventListener
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        Producto copia = evento.actual() != null ? evento.actual().copia() : null;
+        if (aplicar(evento.id(), copia)) {
+            notificar(copia);
+        }
+    }
+
+    public SseEmitter suscribir() {
+        SseEmitter emisor = new SseEmitter(sseTimeout.toMillis());
+        emisor.onCompletion(() -> suscriptores.remove(emisor));
+        emisor.onTimeout(() -> suscriptores.remove(emisor));
+        emisor.onError(error -> suscriptores.remove(emisor));
+        suscriptores.add(emisor);
+        return emisor;
+    }
+
+    /**
+     * Deja el producto en el conjunto si su stock está bajo el umbral y lo
+     * quita si no (o si se borró, copia null). Todo ocurre dentro del compute
+     * de su versión, así dos eventos del mismo id no se intercalan. Devuelve
+     * true si el producto entró al conjunto
+     */
+    private boolean aplicar(Long id, Producto copia) {
+        long version = copia != null ? copia.getVersion() : Long.MAX_VALUE;
+        boolean[] entro = {false};
+
+        versiones.compute(id, (clave, vista) -> {
+            Producto previo = productos.get(id);
+            long ultima = Math.max(vista != null ? vista : -1, previo != null ? previo.getVersion() : -1);
+            // Un evento atrasado (versión menor a la ya vista) se descarta
+            if (version < ultima) {
+                return ultima;
+            }
+            if (previo != null) {
+                ordenados.remove(previo);
+            }
+            if (copia != null && copia.getStock() <= umbral) {
+                productos.put(id, copia);
+                ordenados.add(copia);
+                entro[0] = previo == null;
+            } else {
+                productos.remove(id);
+            }
+            return version;
+        });
+        return entro[0];
+    }
+
+    // El envío se hace fuera del hilo que hizo la escritura
+    private void notificar(Producto producto) {
+        if (suscriptores.isEmpty()) {
+            return;
+        }
+        applicationTaskExecutor.execute(() -> {
+            for (SseEmitter emisor : suscriptores) {
+                try {
+                    emisor.send(SseEmitter.event().name("stock-bajo").id(String.valueOf(producto.getId())).data(producto));
+                } catch (IOException | IllegalStateException e) {
+                    suscriptores.remove(emisor);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.francisco.api.demo.service.memoria;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.francisco.api.demo.config.CacheConfig;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Quita de la caché de productos cada id modificado, después del commit. Las
+ * operaciones en lote publican un evento por producto, así solo se desalojan
+ * los ids que tocaron en vez de vaciar la caché entera. Si la transacción se
+ * revierte no hay eventos y la caché queda como estaba.
+ *
+ * Una lectura que empezó antes del commit puede terminar después del desalojo
+ * y guardar la versión vieja. Por eso se recuerda la última versión confirmada
+ * de cada id durante "productos.cache.versiones.ttl" y guardar() descarta las
+ * anteriores. La comprobación y la escritura van en un compute() de Caffeine:
+ * un desalojo concurrente del mismo id espera a que termine y lo quita
+ */
+@Component
+public class InvalidacionCacheProductos {
+
+    private final Cache cache;
+    private final com.github.benmanes.caffeine.cache.Cache<Long, Long> versiones;
+
+    public InvalidacionCacheProductos(CacheManager cacheManager,
+            @Value("${productos.cache.versiones.ttl:1m}") Duration ttl) {
+        this.cache = cacheManager.getCache(CacheConfig.PRODUCTOS);
+        this.versiones = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @TransactionalEventListener
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        // Un producto borrado no vuelve a la caché mientras dure la marca
+        long version = evento.actual() != null ? evento.actual().getVersion() : Long.MAX_VALUE;
+        versiones.asMap().merge(evento.id(), version, Math::max);
+        cache.evict(evento.id());
+    }
+
+    /**
+     * Agrega el producto a la caché salvo que ya se haya confirmado una
+     * versión posterior
+     */
+    @SuppressWarnings("unchecked")
+    public void guardar(Producto producto) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativa =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        nativa.asMap().compute(producto.getId(), (id, enCache) -> vigente(producto) ? producto : enCache);
+    }
+
+    private boolean vigente(Producto producto) {
+        Long confirmada = versiones.getIfPresent(producto.getId());
+        return confirmada == null || producto.getVersion() >= confirmada;
+    }
+}
@@ -0,0 +1,44 @@
+package com.francisco.api.demo.service.memoria;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+
+/**
+ * Versión global del catálogo para los ETag de los listados. Se incrementa con
+ * cada escritura confirmada, así validar una página no requiere consultar la
+ * base de datos. Incluye el instante de arranque para que los ETag de una
+ * ejecución anterior no coincidan. Los cambios hechos fuera de la aplicación
+ * no se detectan
+ */
+@Component
+public class VersionCatalogo {
+
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile Instant ultimaModificacion = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @TransactionalEventListener
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        ultimaModificacion = Instant.now();
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    // ETag débil: la misma versión puede servir representaciones distintas (página, fields, etc.)
+    public String etag() {
+        return "W/\"" + arranque + "-" + version.get() + "\"";
+    }
+
+    public Instant ultimaModificacion() {
+        return ultimaModificacion;
+    }
+}
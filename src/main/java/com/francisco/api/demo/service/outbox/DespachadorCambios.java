@@ -0,0 +1,116 @@
+package com.francisco.api.demo.service.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.model.CambioProducto;
+import com.francisco.api.demo.repository.CambioProductoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Vacía el outbox en segundo plano: toma los cambios pendientes por lotes, les
+ * asigna posiciones correlativas y los entrega a todos los sumideros dentro de
+ * la misma transacción. Si algo falla el lote queda pendiente y se reintenta
+ * (entrega al menos una vez). Supone un único despachador, es decir, una sola
+ * instancia de la aplicación. Con varios shards cada uno tiene su outbox: se
+ * vacían uno tras otro con una numeración de posiciones común
+ */
+@Slf4j
+@Component
+@Lazy(false) // los @Scheduled solo se registran si el bean se crea
+public class DespachadorCambios {
+
+    private final CambioProductoRepository cambioProductoRepository;
+    private final List<SumideroCambios> sumideros;
+    private final Shards shards;
+    private final TransactionTemplate transaccion;
+    private final int tamanioLote;
+    private final Duration retencion;
+
+    // Última posición asignada; se lee de la BD en la primera pasada
+    private long ultimaPosicion = -1;
+    // Posiciones hasta aquí ya confirmadas en todos los shards (límite del feed)
+    private volatile long posicionConfirmada = -1;
+
+    public DespachadorCambios(CambioProductoRepository cambioProductoRepository, List<SumideroCambios> sumideros,
+            Shards shards, PlatformTransactionManager transactionManager,
+            @Value("${productos.outbox.tamanio-lote:200}") int tamanioLote,
+            @Value("${productos.outbox.retencion:7d}") Duration retencion) {
+        this.cambioProductoRepository = cambioProductoRepository;
+        this.sumideros = sumideros;
+        this.shards = shards;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.retencion = retencion;
+    }
+
+    @Scheduled(fixedDelayString = "${productos.outbox.intervalo:1s}")
+    public void despachar() {
+        try {
+            if (ultimaPosicion < 0) {
+                ultimaPosicion = shards.enTodos(shard -> cambioProductoRepository.buscarUltimaPosicion())
+                        .stream().mapToLong(Long::longValue).max().orElse(0);
+            }
+            for (int shard = 0; shard < shards.cantidad(); shard++) {
+                shards.en(shard, () -> {
+                    int despachados;
+                    do {
+                        despachados = transaccion.execute(estado -> despacharLote());
+                        posicionConfirmada = ultimaPosicion;
+                    } while (despachados == tamanioLote);
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo despachar el outbox de cambios, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Las posiciones se asignan en orden y un lote se confirma antes de
+     * numerar el siguiente, así que todas las posiciones hasta esta ya son
+     * visibles. Un lector que consulta los shards sin este límite podría ver
+     * una posición de un shard antes que otra menor de otro y saltársela.
+     * Devuelve -1 antes de la primera pasada
+     */
+    public long posicionConfirmada() {
+        return posicionConfirmada;
+    }
+
+    @Scheduled(fixedDelayString = "${productos.outbox.intervalo-limpieza:1h}")
+    public void limpiar() {
+        LocalDateTime antesDe = LocalDateTime.now().minus(retencion);
+        shards.enCada(shard -> transaccion.executeWithoutResult(estado ->
+                cambioProductoRepository.eliminarDespachadosAntesDe(antesDe)));
+    }
+
+    private int despacharLote() {
+        List<CambioProducto> pendientes = cambioProductoRepository.buscarPendientes(PageRequest.of(0, tamanioLote));
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+
+        long posicion = ultimaPosicion;
+        for (CambioProducto cambio : pendientes) {
+            // Entidades administradas: los UPDATE se envían en lote JDBC al confirmar
+            cambio.setPosicion(++posicion);
+        }
+        for (SumideroCambios sumidero : sumideros) {
+            sumidero.publicar(pendientes);
+        }
+
+        cambioProductoRepository.flush();
+        ultimaPosicion = posicion;
+        return pendientes.size();
+    }
+}
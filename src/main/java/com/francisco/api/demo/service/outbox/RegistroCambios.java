@@ -0,0 +1,50 @@
+package com.francisco.api.demo.service.outbox;
+
+import java.time.LocalDateTime;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.CambioProducto;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.CambioProductoRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Escribe cada cambio de producto en el outbox. Es un listener síncrono: corre
+ * dentro de la transacción de la escritura, así que el registro se confirma o
+ * se descarta junto con el cambio
+ */
+@Component
+@RequiredArgsConstructor
+public class RegistroCambios {
+
+    private final CambioProductoRepository cambioProductoRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        Producto estado = evento.actual() != null ? evento.actual() : evento.anterior();
+
+        CambioProducto cambio = new CambioProducto();
+        cambio.setProductoId(evento.id());
+        cambio.setTipo(evento.tipo());
+        cambio.setVersionProducto(estado != null ? estado.getVersion() : null);
+        cambio.setDatos(evento.actual() != null ? aJson(evento.actual()) : null);
+        cambio.setFechaRegistro(LocalDateTime.now());
+
+        cambioProductoRepository.save(cambio);
+    }
+
+    private String aJson(Producto producto) {
+        try {
+            return objectMapper.writeValueAsString(producto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el producto " + producto.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.francisco.api.demo.service.outbox;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.api.demo.model.CambioProducto;
+
+/**
+ * Agrega los cambios a un archivo NDJSON (un cambio por línea). Se activa
+ * indicando productos.outbox.archivo
+ */
+@Component
+@ConditionalOnProperty(name = "productos.outbox.archivo")
+public class SumideroArchivo implements SumideroCambios {
+
+    private final ObjectMapper objectMapper;
+    private final Path archivo;
+
+    public SumideroArchivo(ObjectMapper objectMapper, @Value("${productos.outbox.archivo}") Path archivo) {
+        this.objectMapper = objectMapper;
+        this.archivo = archivo;
+    }
+
+    @Override
+    public void publicar(List<CambioProducto> cambios) {
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (CambioProducto cambio : cambios) {
+                salida.write(objectMapper.writeValueAsString(cambio));
+                salida.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en " + archivo, e);
+        }
+    }
+}
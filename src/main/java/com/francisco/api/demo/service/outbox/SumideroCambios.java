@@ -0,0 +1,15 @@
+package com.francisco.api.demo.service.outbox;
+
+import java.util.List;
+
+import com.francisco.api.demo.model.CambioProducto;
+
+/**
+ * Destino de los cambios del outbox. El despachador entrega los lotes en orden
+ * de posición; si un sumidero lanza una excepción el lote se reintenta en la
+ * siguiente pasada (para todos los sumideros)
+ */
+public interface SumideroCambios {
+
+    void publicar(List<CambioProducto> cambios);
+}
@@ -0,0 +1,27 @@
+package com.francisco.api.demo.service.outbox;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.francisco.api.demo.event.CambiosDespachadosEvent;
+import com.francisco.api.demo.model.CambioProducto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Entrega los lotes a los listeners de la propia aplicación como
+ * {@link CambiosDespachadosEvent}
+ */
+@Component
+@RequiredArgsConstructor
+public class SumideroEventos implements SumideroCambios {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publicar(List<CambioProducto> cambios) {
+        eventPublisher.publishEvent(new CambiosDespachadosEvent(List.copyOf(cambios)));
+    }
+}
@@ -1,25 +1,28 @@
 -- Datos iniciales para la tabla de productos (Mangas)
 -- Se cargan automáticamente al iniciar la aplicación
 
-INSERT INTO productos (nombre, descripcion, precio, stock, fecha_creacion, fecha_actualizacion, activo)
+INSERT INTO productos (id, nombre, nombre_normalizado, descripcion, precio, stock, fecha_creacion, fecha_actualizacion, activo, version)
 VALUES
-  ('Alya Sometimes Hides Her Feelings in Russian Vol. 1', 'Romance y comedia sobre Alya y sus sentimientos ocultos', 9.99, 50, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('My Dress-Up Darling Vol. 1', 'Gawr Gawr y Marin exploran cosplay y su relación en la escuela', 9.99, 45, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('One Piece Vol. 105', 'Luffy y los Sombrero de Paja continúan su aventura por el Nuevo Mundo', 10.99, 40, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Naruto Vol. 72', 'El legado de Naruto continúa y se exploran nuevos caminos de los ninjas', 8.99, 35, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Dan Dadan Vol. 1', 'Comedia sobrenatural de romance entre humanos y espíritus', 9.49, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Jujutsu Kaisen Vol. 1', 'Yuji Itadori descubre el mundo de los hechiceros y maldiciones', 10.49, 45, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Spy x Family Vol. 10', 'Forger y su familia continúan sus aventuras como espías y civiles', 9.99, 40, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Chainsaw Man Vol. 1', 'Denji lucha contra demonios con su inusual poder de motosierra', 11.49, 25, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Sakamoto Days Vol. 1', 'Sakamoto, un ex-asesino, vive una vida tranquila hasta que lo persiguen de nuevo', 9.99, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Oshi no Ko Vol. 1', 'Historia sobre la industria del entretenimiento y los secretos de los idols', 10.49, 32, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Bocchi the Rock! Vol. 1', 'Comedia y música sobre una chica tímida que quiere ser estrella de rock', 9.49, 40, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Mashle Vol. 1', 'Mash intenta sobrevivir en una escuela de magia usando fuerza bruta y humor', 9.99, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Frieren: Beyond Journey’s End Vol. 1', 'Una elfa explora el mundo después de la derrota del gran enemigo', 10.99, 32, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('The Legendary Hero Is Dead! Vol. 1', 'Comedia y fantasía sobre héroes, villanos y aventuras inesperadas', 9.99, 35, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Ragna Crimson Vol. 1', 'Acción y fantasía épica en un mundo donde los dragones dominan', 10.49, 28, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('The Elusive Samurai Vol. 1', 'Historia de samuráis y aventuras con humor y acción', 10.49, 28, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Aharen-san wa Hakarenai Vol. 1', 'Comedia romántica sobre la interacción de Aharen y su compañero', 9.49, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Kubo Won’t Let Me Be Invisible Vol. 1', 'Romántica y cómica historia de un chico que se vuelve invisible para los demás', 9.99, 25, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('Saint Cecilia and Pastor Lawrence Vol. 1', 'Romance y vida cotidiana entre una sacerdotisa y un pastor', 9.49, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true),
-  ('A Galaxy Next Door Vol. 1', 'Romántica y cómica historia entre vecinos con secretos sorprendentes', 9.99, 35, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true);
+  (1, 'Alya Sometimes Hides Her Feelings in Russian Vol. 1', 'alya sometimes hides her feelings in russian vol. 1', 'Romance y comedia sobre Alya y sus sentimientos ocultos', 9.99, 50, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (2, 'My Dress-Up Darling Vol. 1', 'my dress-up darling vol. 1', 'Gawr Gawr y Marin exploran cosplay y su relación en la escuela', 9.99, 45, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (3, 'One Piece Vol. 105', 'one piece vol. 105', 'Luffy y los Sombrero de Paja continúan su aventura por el Nuevo Mundo', 10.99, 40, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (4, 'Naruto Vol. 72', 'naruto vol. 72', 'El legado de Naruto continúa y se exploran nuevos caminos de los ninjas', 8.99, 35, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (5, 'Dan Dadan Vol. 1', 'dan dadan vol. 1', 'Comedia sobrenatural de romance entre humanos y espíritus', 9.49, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (6, 'Jujutsu Kaisen Vol. 1', 'jujutsu kaisen vol. 1', 'Yuji Itadori descubre el mundo de los hechiceros y maldiciones', 10.49, 45, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (7, 'Spy x Family Vol. 10', 'spy x family vol. 10', 'Forger y su familia continúan sus aventuras como espías y civiles', 9.99, 40, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (8, 'Chainsaw Man Vol. 1', 'chainsaw man vol. 1', 'Denji lucha contra demonios con su inusual poder de motosierra', 11.49, 25, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (9, 'Sakamoto Days Vol. 1', 'sakamoto days vol. 1', 'Sakamoto, un ex-asesino, vive una vida tranquila hasta que lo persiguen de nuevo', 9.99, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (10, 'Oshi no Ko Vol. 1', 'oshi no ko vol. 1', 'Historia sobre la industria del entretenimiento y los secretos de los idols', 10.49, 32, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (11, 'Bocchi the Rock! Vol. 1', 'bocchi the rock! vol. 1', 'Comedia y música sobre una chica tímida que quiere ser estrella de rock', 9.49, 40, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (12, 'Mashle Vol. 1', 'mashle vol. 1', 'Mash intenta sobrevivir en una escuela de magia usando fuerza bruta y humor', 9.99, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (13, 'Frieren: Beyond Journey’s End Vol. 1', 'frieren: beyond journey’s end vol. 1', 'Una elfa explora el mundo después de la derrota del gran enemigo', 10.99, 32, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (14, 'The Legendary Hero Is Dead! Vol. 1', 'the legendary hero is dead! vol. 1', 'Comedia y fantasía sobre héroes, villanos y aventuras inesperadas', 9.99, 35, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (15, 'Ragna Crimson Vol. 1', 'ragna crimson vol. 1', 'Acción y fantasía épica en un mundo donde los dragones dominan', 10.49, 28, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (16, 'The Elusive Samurai Vol. 1', 'the elusive samurai vol. 1', 'Historia de samuráis y aventuras con humor y acción', 10.49, 28, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (17, 'Aharen-san wa Hakarenai Vol. 1', 'aharen-san wa hakarenai vol. 1', 'Comedia romántica sobre la interacción de Aharen y su compañero', 9.49, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (18, 'Kubo Won’t Let Me Be Invisible Vol. 1', 'kubo won’t let me be invisible vol. 1', 'Romántica y cómica historia de un chico que se vuelve invisible para los demás', 9.99, 25, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (19, 'Saint Cecilia and Pastor Lawrence Vol. 1', 'saint cecilia and pastor lawrence vol. 1', 'Romance y vida cotidiana entre una sacerdotisa y un pastor', 9.49, 30, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0),
+  (20, 'A Galaxy Next Door Vol. 1', 'a galaxy next door vol. 1', 'Romántica y cómica historia entre vecinos con secretos sorprendentes', 9.99, 35, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true, 0);
+
+-- Los ids se asignan con secuencia: se reinicia después de los datos iniciales
+ALTER SEQUENCE productos_seq RESTART WITH 21;
@@ -0,0 +1,37 @@
+-- Esquema inicial (perfil "persistente"). Debe coincidir con las entidades:
+-- Hibernate lo valida al arrancar (ddl-auto=validate)
+
+CREATE SEQUENCE productos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE cambios_productos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE productos (
+    id                  BIGINT         NOT NULL,
+    nombre              VARCHAR(100)   NOT NULL,
+    nombre_normalizado  VARCHAR(100)   NOT NULL,
+    descripcion         VARCHAR(500),
+    precio              NUMERIC(10, 2) NOT NULL,
+    stock               INTEGER        NOT NULL CHECK (stock >= 0),
+    fecha_creacion      TIMESTAMP(6)   NOT NULL,
+    fecha_actualizacion TIMESTAMP(6),
+    activo              BOOLEAN        NOT NULL,
+    version             BIGINT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_productos_nombre_normalizado UNIQUE (nombre_normalizado)
+);
+
+CREATE INDEX idx_productos_fecha_actualizacion_id ON productos (fecha_actualizacion, id);
+CREATE INDEX idx_productos_activo_id ON productos (activo, id);
+CREATE INDEX idx_productos_stock_id ON productos (stock, id);
+
+CREATE TABLE cambios_productos (
+    id               BIGINT       NOT NULL,
+    posicion         BIGINT,
+    producto_id      BIGINT       NOT NULL,
+    tipo             ENUM ('CREADO', 'ACTUALIZADO', 'DESACTIVADO', 'ELIMINADO') NOT NULL,
+    version_producto BIGINT,
+    datos            CLOB,
+    fecha_registro   TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_cambios_productos_posicion ON cambios_productos (posicion);
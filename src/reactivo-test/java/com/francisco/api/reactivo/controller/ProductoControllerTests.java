@@ -0,0 +1,173 @@
+package com.francisco.api.reactivo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.francisco.api.reactivo.ReactivoApplication;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * La API reactiva sobre Netty y R2DBC. Solo corre con el perfil Maven
+ * "reactivo" (mvn -Preactivo test)
+ */
+@SpringBootTest(classes = ReactivoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+			// application.properties es la configuración de la API servlet
+			"spring.config.name=reactivo",
+			"spring.r2dbc.url=r2dbc:h2:mem:///reactivo;DB_CLOSE_DELAY=-1"
+		})
+class ProductoControllerTests {
+
+	@Autowired
+	private WebTestClient cliente;
+
+	@Autowired
+	private ConnectionFactory connectionFactory;
+
+	@Test
+	void etagDevuelve304SinCambiosY412ConIfMatchViejo() {
+		Long id = crear(5);
+
+		String etag = cliente.get().uri("/api/productos/{id}", id)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+				.returnResult(String.class).getResponseHeaders().getETag();
+
+		cliente.get().uri("/api/productos/{id}", id)
+				.header(HttpHeaders.IF_NONE_MATCH, etag)
+				.exchange()
+				.expectStatus().isNotModified();
+
+		cliente.put().uri("/api/productos/{id}", id)
+				.header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(producto(nombreUnico(), 3, 5))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+		cliente.put().uri("/api/productos/{id}", id)
+				.header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(producto(nombreUnico(), 4, 5))
+				.exchange()
+				.expectStatus().isEqualTo(412);
+	}
+
+	@Test
+	void productoSinFechaDeActualizacionSeSirveSinLastModified() {
+		// Una fila cargada por fuera de la API: fecha_actualizacion admite null
+		long id = 900_000L;
+		DatabaseClient.create(connectionFactory)
+				.sql("INSERT INTO productos (id, nombre, nombre_normalizado, precio, stock, fecha_creacion, activo, version) "
+						+ "VALUES (:id, 'Cargado a mano', 'cargado a mano', 3, 1, CURRENT_TIMESTAMP, TRUE, 0)")
+				.bind("id", id)
+				.then()
+				.block();
+
+		cliente.get().uri("/api/productos/{id}", id)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().doesNotExist(HttpHeaders.LAST_MODIFIED)
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"");
+
+		cliente.get().uri("/api/productos/{id}", id)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+				.exchange()
+				.expectStatus().isNotModified();
+	}
+
+	@Test
+	void jsonPatchRechazaCamposProtegidos() {
+		Long id = crear(5);
+
+		cliente.patch().uri("/api/productos/{id}", id)
+				.contentType(MediaType.valueOf("application/json-patch+json"))
+				.bodyValue(List.of(Map.of("op", "replace", "path", "/stock", "value", 8)))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.stock").isEqualTo(8);
+
+		cliente.patch().uri("/api/productos/{id}", id)
+				.contentType(MediaType.valueOf("application/json-patch+json"))
+				.bodyValue(List.of(Map.of("op", "replace", "path", "/version", "value", 8)))
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void ajusteDeStockEnLoteEsTodoONadaYAcotado() {
+		Long conStock = crear(10);
+		Long sinStock = crear(1);
+
+		cliente.post().uri("/api/productos/stock:adjust")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("[{\"id\": " + conStock + ", \"delta\": -4}, {\"id\": " + sinStock + ", \"delta\": -2}]")
+				.exchange()
+				.expectStatus().isBadRequest();
+		cliente.get().uri("/api/productos/{id}", conStock)
+				.exchange()
+				.expectBody().jsonPath("$.stock").isEqualTo(10);
+
+		String grande = LongStream.rangeClosed(1, 101)
+				.mapToObj(i -> "{\"id\": " + i + ", \"delta\": 1}")
+				.collect(Collectors.joining(", ", "[", "]"));
+		cliente.post().uri("/api/productos/stock:adjust")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(grande)
+				.exchange()
+				.expectStatus().isBadRequest();
+
+		cliente.post().uri("/api/productos/stock:adjust")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("[{\"id\": " + conStock + ", \"delta\": " + Integer.MAX_VALUE + "}, {\"id\": " + conStock
+						+ ", \"delta\": " + Integer.MAX_VALUE + "}]")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody().jsonPath("$.mensaje").value(mensaje -> assertThat((String) mensaje).contains("excede el rango"));
+	}
+
+	@Test
+	void idInexistenteDevuelve404() {
+		cliente.get().uri("/api/productos/{id}", Long.MAX_VALUE)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	private Long crear(int stock) {
+		Number id = cliente.post().uri("/api/productos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(producto(nombreUnico(), 2, stock))
+				.exchange()
+				.expectStatus().isCreated()
+				.returnResult(Map.class)
+				.getResponseBody()
+				.map(cuerpo -> (Number) cuerpo.get("id"))
+				.blockFirst();
+		return id.longValue();
+	}
+
+	private static String nombreUnico() {
+		return "Producto de prueba " + UUID.randomUUID();
+	}
+
+	private static String producto(String nombre, int precio, int stock) {
+		return "{\"nombre\": \"" + nombre + "\", \"descripcion\": \"Creado por los tests\", \"precio\": " + precio
+				+ ", \"stock\": " + stock + ", \"activo\": true}";
+	}
+}
@@ -0,0 +1,36 @@
+package com.francisco.api.reactivo;
+
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Variante reactiva de la API de productos (WebFlux + R2DBC), con el mismo
+ * contrato en /api/productos. Se compila con el perfil Maven "reactivo" y no
+ * comparte beans con DemoApplication: solo las excepciones y los DTO de error.
+ * JDBC, JPA y Flyway siguen en el classpath por la API servlet, así que se
+ * excluyen
+ */
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+        FlywayAutoConfiguration.class})
+public class ReactivoApplication {
+
+    public static void main(String[] args) {
+        SpringApplication aplicacion = new SpringApplication(ReactivoApplication.class);
+        // application.properties es la configuración de la API servlet
+        aplicacion.setDefaultProperties(Map.of("spring.config.name", "reactivo"));
+        aplicacion.run(args);
+    }
+
+    // Con Tomcat en el classpath Spring Boot lo elegiría también para WebFlux
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
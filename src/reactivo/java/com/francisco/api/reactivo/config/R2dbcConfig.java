@@ -0,0 +1,49 @@
+package com.francisco.api.reactivo.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Pool R2DBC propio, con las mismas propiedades spring.r2dbc.* que el de
+ * Spring Boot. r2dbc-h2 contesta en el mismo hilo, así que al devolver una
+ * conexión el pool ejecutaba ahí mismo la petición del siguiente en espera (y
+ * la del siguiente...): el hilo que la devolvía no terminaba su propia
+ * respuesta hasta vaciar la cola. Las entregas van ahora a otro scheduler
+ */
+@Configuration
+public class R2dbcConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(
+            @Value("${spring.r2dbc.url}") String url,
+            @Value("${spring.r2dbc.username:}") String usuario,
+            @Value("${spring.r2dbc.password:}") String clave,
+            @Value("${spring.r2dbc.pool.initial-size:10}") int tamanioInicial,
+            @Value("${spring.r2dbc.pool.max-size:10}") int tamanioMaximo,
+            @Value("${spring.r2dbc.pool.max-acquire-time:5s}") Duration esperaMaxima) {
+
+        // ConnectionFactoryBuilder conserva las opciones: la inicialización SQL deduce de ahí la BD
+        ConnectionFactory conexiones = ConnectionFactoryBuilder.withUrl(url)
+                .username(usuario)
+                .password(clave)
+                .build();
+
+        ConnectionPoolConfiguration configuracion = ConnectionPoolConfiguration.builder(conexiones)
+                .name("productos")
+                .initialSize(tamanioInicial)
+                .maxSize(tamanioMaximo)
+                .maxAcquireTime(esperaMaxima)
+                .customizer(pool -> pool.acquisitionScheduler(Schedulers.parallel()))
+                .build();
+        return new ConnectionPool(configuracion);
+    }
+}
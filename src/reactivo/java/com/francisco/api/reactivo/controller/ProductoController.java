@@ -0,0 +1,221 @@
+package com.francisco.api.reactivo.controller;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.francisco.api.demo.dto.AjusteStock;
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.dto.StockActual;
+import com.francisco.api.demo.exception.PrecondicionFallidaException;
+import com.francisco.api.demo.service.FormatoExportacion;
+import com.francisco.api.reactivo.model.Producto;
+import com.francisco.api.reactivo.service.ProductoService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mismo contrato que la API servlet en /api/productos para el CRUD, los
+ * PATCH, el ajuste de stock, los listados, el stock bajo y la exportación. Las respuestas se escriben cuando
+ * la BD contesta, sin un hilo por petición esperando
+ */
+@RestController
+@RequestMapping("/api/productos")
+@RequiredArgsConstructor
+public class ProductoController {
+
+    private final ProductoService productoService;
+
+    @GetMapping
+    public Mono<Page<Producto>> obtenerTodos(
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos) {
+
+        Pageable pageable = PageRequest.of(page, 10);
+        return soloActivos
+                ? productoService.obtenerActivosPaginado(pageable)
+                : productoService.obtenerTodosPaginado(pageable);
+    }
+
+    // Revalidación (If-None-Match / If-Modified-Since): 304 sin cuerpo si no cambió
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Producto>> obtenerPorId(@PathVariable Long id, ServerWebExchange exchange) {
+        return productoService.obtenerPorId(id)
+                .filter(producto -> !exchange.checkNotModified(etag(producto.getVersion()),
+                        instante(producto.getFechaActualizacion())))
+                .map(ProductoController::conVersion);
+    }
+
+    // Flux: se serializa como arreglo JSON a medida que llegan las filas
+    @GetMapping("/stock-bajo")
+    public Flux<Producto> obtenerStockBajo(
+            @RequestParam(defaultValue = "10") Integer stockMinimo,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "50") int limite) {
+
+        return productoService.obtenerConStockBajo(stockMinimo, page, limite);
+    }
+
+    // Exportación completa (NDJSON o CSV) con contrapresión hasta la BD
+    @GetMapping("/export")
+    public ResponseEntity<Flux<String>> exportar(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false, defaultValue = "false") Boolean soloActivos) {
+
+        FormatoExportacion formato = FormatoExportacion.desde(format);
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"productos." + formato.getExtension() + "\"")
+                .body(productoService.exportar(formato, soloActivos));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Producto>> crear(@Valid @RequestBody Producto producto) {
+        return productoService.crear(producto)
+                .map(nuevoProducto -> ResponseEntity.status(HttpStatus.CREATED).body(nuevoProducto));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Producto>> actualizar(
+            @PathVariable Long id,
+            @Valid @RequestBody Producto producto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return productoService.actualizar(id, producto, versionDeIfMatch(ifMatch))
+                .map(ProductoController::conVersion);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = "application/json")
+    public Mono<ResponseEntity<Producto>> actualizarParcial(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> campos,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return productoService.actualizarParcial(id, campos, versionDeIfMatch(ifMatch))
+                .map(ProductoController::conVersion);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public Mono<ResponseEntity<Producto>> aplicarMergePatch(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> parche,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return productoService.aplicarMergePatch(id, parche, versionDeIfMatch(ifMatch))
+                .map(ProductoController::conVersion);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = "application/json-patch+json")
+    public Mono<ResponseEntity<Producto>> aplicarJsonPatch(
+            @PathVariable Long id,
+            @RequestBody List<OperacionPatch> operaciones,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return productoService.aplicarJsonPatch(id, operaciones, versionDeIfMatch(ifMatch))
+                .map(ProductoController::conVersion);
+    }
+
+    // Ajuste atómico de stock: delta positivo repone, negativo descuenta
+    @PostMapping("/{id}/stock:adjust")
+    public Mono<StockActual> ajustarStock(
+            @PathVariable Long id,
+            @Valid @RequestBody AjusteStock ajuste) {
+
+        return productoService.ajustarStock(id, ajuste.getDelta());
+    }
+
+    @PostMapping("/stock:adjust")
+    public Mono<List<StockActual>> ajustarStockLote(@RequestBody List<AjusteStock> ajustes) {
+        return productoService.ajustarStockLote(ajustes);
+    }
+
+    // Soft delete - marca como inactivo
+    @DeleteMapping("/{id}")
+    public Mono<Map<String, String>> eliminar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return productoService.eliminar(id, versionDeIfMatch(ifMatch))
+                .then(Mono.fromSupplier(() -> {
+                    Map<String, String> respuesta = new LinkedHashMap<>();
+                    respuesta.put("mensaje", "Producto eliminado exitosamente");
+                    respuesta.put("id", id.toString());
+                    return respuesta;
+                }));
+    }
+
+    // Hard delete - borra permanentemente de la BD
+    @DeleteMapping("/{id}/fisico")
+    public Mono<ResponseEntity<Void>> eliminarFisico(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return productoService.eliminarFisico(id, versionDeIfMatch(ifMatch))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    // ETag fuerte del producto: su número de versión (@Version)
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static ResponseEntity<Producto> conVersion(Producto producto) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().eTag(etag(producto.getVersion()));
+        if (producto.getFechaActualizacion() != null) {
+            respuesta.lastModified(fecha(producto.getFechaActualizacion()));
+        }
+        return respuesta.body(producto);
+    }
+
+    // fecha_actualizacion admite null: un instante anterior a 1970 equivale a sin Last-Modified
+    private static Instant instante(LocalDateTime fecha) {
+        return fecha != null ? fecha(fecha).toInstant() : Instant.ofEpochMilli(-1);
+    }
+
+    private static ZonedDateTime fecha(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault());
+    }
+
+    // Igual que en la API servlet: null sin If-Match o con "*", y comparación fuerte
+    private static Long versionDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            try {
+                return Long.valueOf(valor.substring(1, valor.length() - 1));
+            } catch (NumberFormatException e) {
+                // Se informa abajo
+            }
+        }
+        throw new PrecondicionFallidaException("If-Match no coincide con ninguna versión del producto: " + valor);
+    }
+}
@@ -0,0 +1,202 @@
+package com.francisco.api.reactivo.exception;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.francisco.api.demo.exception.ErrorResponse;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.exception.PrecondicionFallidaException;
+import com.francisco.api.demo.exception.ProductoNotFoundException;
+import com.francisco.api.demo.model.Producto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manejador global de excepciones de la API reactiva. Responde lo mismo que
+ * el de la API servlet (ErrorResponse, o ProblemDetail si se pide), con la
+ * ruta tomada de ServerHttpRequest
+ */
+
+@Slf4j
+@ControllerAdvice
+@RequiredArgsConstructor
+public class GlobalExceptionHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    @ExceptionHandler(ProductoNotFoundException.class)
+    public ResponseEntity<Object> handleProductoNotFoundException(
+            ProductoNotFoundException ex,
+            ServerHttpRequest request) {
+
+        contar("handleProductoNotFoundException", ex);
+        return respuesta(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), null, request);
+    }
+
+    @ExceptionHandler(InvalidProductoException.class)
+    public ResponseEntity<Object> handleInvalidProductoException(
+            InvalidProductoException ex,
+            ServerHttpRequest request) {
+
+        contar("handleInvalidProductoException", ex);
+        return badRequest(ex.getMessage(), request);
+    }
+
+    // Restricciones de la BD (p. ej. nombre repetido): se responden como error de validación
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex,
+            ServerHttpRequest request) {
+
+        contar("handleDataIntegrityViolationException", ex);
+
+        String causa = String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase();
+        String mensaje = causa.contains(Producto.UK_NOMBRE_NORMALIZADO)
+                ? "Ya existe un producto con ese nombre"
+                : "Los datos enviados violan una restricción de integridad";
+
+        return badRequest(mensaje, request);
+    }
+
+    // Conflicto de bloqueo optimista (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex,
+            ServerHttpRequest request) {
+
+        contar("handleOptimisticLockingFailureException", ex);
+        return respuesta(HttpStatus.CONFLICT, "Conflict",
+                "El producto fue modificado por otra operación, vuelva a intentarlo", null, request);
+    }
+
+    // If-Match no coincide con la versión actual del producto
+    @ExceptionHandler(PrecondicionFallidaException.class)
+    public ResponseEntity<Object> handlePrecondicionFallidaException(
+            PrecondicionFallidaException ex,
+            ServerHttpRequest request) {
+
+        contar("handlePrecondicionFallidaException", ex);
+        return respuesta(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", ex.getMessage(), null, request);
+    }
+
+    // Sin conexión del pool R2DBC en el tiempo máximo: se puede reintentar
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<Object> handleConexionNoDisponible(
+            DataAccessResourceFailureException ex,
+            ServerHttpRequest request) {
+
+        contar("handleConexionNoDisponible", ex);
+        return respuesta(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+                "El servicio está saturado, vuelva a intentarlo en unos segundos", null, request);
+    }
+
+    // Validación de Bean Validation (en WebFlux no es MethodArgumentNotValidException)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleValidationExceptions(
+            WebExchangeBindException ex,
+            ServerHttpRequest request) {
+
+        contar("handleValidationExceptions", ex);
+
+        List<String> detalles = new ArrayList<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            detalles.add(error.getField() + ": " + error.getDefaultMessage());
+        }
+
+        return respuesta(HttpStatus.BAD_REQUEST, "Validation Error", "Error en la validación de los datos",
+                detalles, request);
+    }
+
+    // Errores del propio WebFlux (cuerpo ilegible, parámetro inválido, ruta inexistente): se respeta su estado
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Object> handleResponseStatusException(
+            ResponseStatusException ex,
+            ServerHttpRequest request) {
+
+        contar("handleResponseStatusException", ex);
+        HttpStatusCode status = ex.getStatusCode();
+        HttpStatus conocido = HttpStatus.resolve(status.value());
+        return respuesta(status, conocido != null ? conocido.getReasonPhrase() : String.valueOf(status.value()),
+                ex.getReason() != null ? ex.getReason() : ex.getMessage(), null, request);
+    }
+
+    // Manejo global de excepciones no controladas: el detalle va al log, no a la respuesta
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Object> handleGlobalException(
+            Exception ex,
+            ServerHttpRequest request) {
+
+        contar("handleGlobalException", ex);
+        log.error("Error no controlado en {} {}", request.getMethod(), request.getPath(), ex);
+
+        return respuesta(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                "Ocurrió un error inesperado", null, request);
+    }
+
+    private ResponseEntity<Object> badRequest(String mensaje, ServerHttpRequest request) {
+        return respuesta(HttpStatus.BAD_REQUEST, "Bad Request", mensaje, null, request);
+    }
+
+    private ResponseEntity<Object> respuesta(HttpStatusCode status, String error, String mensaje,
+            List<String> detalles, ServerHttpRequest request) {
+
+        String ruta = request.getPath().value();
+        if (aceptaProblemDetail(request)) {
+            ProblemDetail problema = ProblemDetail.forStatusAndDetail(status, mensaje);
+            problema.setTitle(error);
+            try {
+                problema.setInstance(URI.create(ruta));
+            } catch (IllegalArgumentException e) {
+                // URI no válida: se omite instance
+            }
+            if (detalles != null) {
+                problema.setProperty("detalles", detalles);
+            }
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(problema);
+        }
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                error,
+                mensaje,
+                ruta,
+                detalles
+        );
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    // Solo si se pide explícitamente: con Accept vacío o */* se mantiene ErrorResponse
+    private static boolean aceptaProblemDetail(ServerHttpRequest request) {
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+    }
+
+    // Contador de excepciones por manejador y tipo (productos_excepciones_total en Prometheus)
+    private void contar(String manejador, Exception ex) {
+        meterRegistry.counter("productos.excepciones",
+                "manejador", manejador,
+                "excepcion", ex.getClass().getSimpleName()).increment();
+    }
+}
@@ -0,0 +1,67 @@
+package com.francisco.api.reactivo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Producto mapeado con Spring Data R2DBC sobre la misma tabla (y el mismo JSON)
+ * que la entidad JPA. Las columnas salen del nombre del campo en snake_case.
+ * Sin callbacks de JPA, el servicio completa las fechas y el nombre normalizado
+ */
+@Table("productos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Producto {
+
+    // Lo asigna el servicio con ReactiveProductoRepository.siguienteId()
+    @Id
+    private Long id;
+
+    @NotBlank(message = "El nombre del producto es obligatorio")
+    @Size(min = 3, max = 100, message = "El nombre debe tener entre 3 y 100 caracteres")
+    private String nombre;
+
+    @JsonIgnore
+    private String nombreNormalizado;
+
+    @Size(max = 500, message = "La descripción no puede exceder los 500 caracteres")
+    private String descripcion;
+
+    @NotNull(message = "El precio es obligatorio")
+    @DecimalMin(value = "0.0", inclusive = false, message = "El precio debe ser mayor a 0")
+    private BigDecimal precio;
+
+    @Min(value = 0, message = "El stock no puede ser negativo")
+    private Integer stock = 0;
+
+    private LocalDateTime fechaCreacion;
+
+    private LocalDateTime fechaActualizacion;
+
+    private Boolean activo = true;
+
+    // Bloqueo optimista: el UPDATE incluye la versión leída
+    @Version
+    private Long version;
+
+    public static String normalizarNombre(String nombre) {
+        return nombre != null ? nombre.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.francisco.api.reactivo.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import com.francisco.api.reactivo.model.Producto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repo reactivo de productos sobre R2DBC. Los Flux emiten las filas a medida
+ * que el suscriptor las pide, sin bloquear hilos mientras espera a la BD
+ */
+@Repository
+public interface ReactiveProductoRepository extends ReactiveCrudRepository<Producto, Long> {
+
+    /**
+     * Id para un alta, de la misma secuencia que usa Hibernate. Se toma un
+     * valor por alta (sin optimizador pooled-lo), así que los ids avanzan de
+     * 50 en 50 y nunca chocan con los bloques que reserva la API servlet
+     */
+    @Query("SELECT NEXT VALUE FOR productos_seq")
+    Mono<Long> siguienteId();
+
+    /*
+     * SQL explícito: las consultas derivadas se traducen en cada llamada y el
+     * QueryMapper lanza (y captura) varias PropertyReferenceException por
+     * consulta al resolver los nombres de columna
+     */
+
+    @Query("SELECT * FROM productos ORDER BY id LIMIT :limite OFFSET :desplazamiento")
+    Flux<Producto> buscarPagina(int limite, long desplazamiento);
+
+    @Query("SELECT * FROM productos WHERE activo ORDER BY id LIMIT :limite OFFSET :desplazamiento")
+    Flux<Producto> buscarPaginaActivos(int limite, long desplazamiento);
+
+    @Query("SELECT COUNT(*) FROM productos")
+    Mono<Long> contar();
+
+    @Query("SELECT COUNT(*) FROM productos WHERE activo")
+    Mono<Long> contarActivos();
+
+    @Query("SELECT * FROM productos WHERE stock <= :stock ORDER BY stock, id LIMIT :limite OFFSET :desplazamiento")
+    Flux<Producto> buscarConStockBajo(int stock, int limite, long desplazamiento);
+
+    // Exportación: todo el catálogo en orden de id
+    @Query("SELECT * FROM productos ORDER BY id")
+    Flux<Producto> buscarTodosPorId();
+
+    @Query("SELECT * FROM productos WHERE activo ORDER BY id")
+    Flux<Producto> buscarActivosPorId();
+
+    /**
+     * Ajuste condicional en un solo UPDATE, como en la API servlet: devuelve
+     * el stock resultante o vacío si el producto no existe o el stock no alcanza
+     */
+    @Query("SELECT stock FROM FINAL TABLE (UPDATE productos SET stock = stock + :delta, "
+            + "fecha_actualizacion = :fecha, version = version + 1 WHERE id = :id AND stock + :delta >= 0)")
+    Mono<Integer> ajustarStock(Long id, int delta, LocalDateTime fecha);
+
+    @Query("SELECT stock FROM productos WHERE id = :id")
+    Mono<Integer> buscarStock(Long id);
+}
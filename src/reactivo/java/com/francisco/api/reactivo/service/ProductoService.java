@@ -0,0 +1,51 @@
+package com.francisco.api.reactivo.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.francisco.api.demo.dto.AjusteStock;
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.dto.StockActual;
+import com.francisco.api.demo.service.FormatoExportacion;
+import com.francisco.api.reactivo.model.Producto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ProductoService {
+
+    Mono<Page<Producto>> obtenerTodosPaginado(Pageable pageable);
+
+    Mono<Page<Producto>> obtenerActivosPaginado(Pageable pageable);
+
+    Mono<Producto> obtenerPorId(Long id);
+
+    Flux<Producto> obtenerConStockBajo(Integer stockMinimo, int pagina, int limite);
+
+    // Exportación completa en orden de id, una línea por producto, leída de la BD al ritmo del cliente
+    Flux<String> exportar(FormatoExportacion formato, boolean soloActivos);
+
+    Mono<Producto> crear(Producto producto);
+
+    // versionEsperada (If-Match) puede ser null: sin comprobación previa
+    Mono<Producto> actualizar(Long id, Producto producto, Long versionEsperada);
+
+    // PATCH clásico, JSON Merge Patch y JSON Patch, con las reglas de la API servlet
+    Mono<Producto> actualizarParcial(Long id, Map<String, Object> campos, Long versionEsperada);
+
+    Mono<Producto> aplicarMergePatch(Long id, Map<String, Object> parche, Long versionEsperada);
+
+    Mono<Producto> aplicarJsonPatch(Long id, List<OperacionPatch> operaciones, Long versionEsperada);
+
+    // Ajuste atómico de stock; el lote es todo o nada
+    Mono<StockActual> ajustarStock(Long id, int delta);
+
+    Mono<List<StockActual>> ajustarStockLote(List<AjusteStock> ajustes);
+
+    Mono<Void> eliminar(Long id, Long versionEsperada);
+
+    Mono<Void> eliminarFisico(Long id, Long versionEsperada);
+}
@@ -0,0 +1,311 @@
+package com.francisco.api.reactivo.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.api.demo.dto.AjusteStock;
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.dto.StockActual;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.exception.PrecondicionFallidaException;
+import com.francisco.api.demo.exception.ProductoNotFoundException;
+import com.francisco.api.demo.service.FormatoExportacion;
+import com.francisco.api.demo.service.impl.ProductoParcheador;
+import com.francisco.api.reactivo.model.Producto;
+import com.francisco.api.reactivo.repository.ReactiveProductoRepository;
+import com.francisco.api.reactivo.service.ProductoService;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación reactiva del servicio de productos. Ningún método bloquea:
+ * devuelven Mono/Flux que se ejecutan al suscribirse, y los errores de
+ * negocio viajan como señal de error con las mismas excepciones que la API
+ * servlet. No incluye las cachés, índices en memoria ni eventos de esa API,
+ * así que cada lectura consulta la BD
+ */
+@Service
+public class ProductoServiceImpl implements ProductoService {
+
+    private static final String CABECERA_CSV =
+            "id,nombre,descripcion,precio,stock,fechaCreacion,fechaActualizacion,activo\n";
+    private final ReactiveProductoRepository productoRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    // Sin estado; no es un bean porque ReactivoApplication no escanea el paquete de la API servlet
+    private final ProductoParcheador productoParcheador = new ProductoParcheador();
+    private final int tamanioMaximoPagina;
+    private final int filasPorPeticion;
+
+    public ProductoServiceImpl(ReactiveProductoRepository productoRepository, ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${productos.paginacion.tamanio-maximo:100}") int tamanioMaximoPagina,
+            @Value("${productos.export.filas-por-peticion:256}") int filasPorPeticion) {
+        this.productoRepository = productoRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.tamanioMaximoPagina = tamanioMaximoPagina;
+        this.filasPorPeticion = filasPorPeticion;
+    }
+
+    // Ordenadas por id, como la API servlet, donde H2 devuelve las filas por id sin ORDER BY
+    @Override
+    public Mono<Page<Producto>> obtenerTodosPaginado(Pageable pageable) {
+        return pagina(productoRepository.buscarPagina(pageable.getPageSize(), pageable.getOffset()),
+                productoRepository.contar(), pageable);
+    }
+
+    @Override
+    public Mono<Page<Producto>> obtenerActivosPaginado(Pageable pageable) {
+        return pagina(productoRepository.buscarPaginaActivos(pageable.getPageSize(), pageable.getOffset()),
+                productoRepository.contarActivos(), pageable);
+    }
+
+    @Override
+    public Mono<Producto> obtenerPorId(Long id) {
+        return productoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductoNotFoundException(id)));
+    }
+
+    @Override
+    public Flux<Producto> obtenerConStockBajo(Integer stockMinimo, int pagina, int limite) {
+        if (stockMinimo < 0) {
+            return Flux.error(new InvalidProductoException("El stock mínimo no puede ser negativo"));
+        }
+        if (pagina < 0 || limite < 1 || limite > tamanioMaximoPagina) {
+            return Flux.error(new InvalidProductoException(
+                    "La página no puede ser negativa y el límite debe estar entre 1 y " + tamanioMaximoPagina));
+        }
+        return productoRepository.buscarConStockBajo(stockMinimo, limite, (long) pagina * limite);
+    }
+
+    /**
+     * La demanda del cliente HTTP llega hasta el driver: si el cliente lee
+     * despacio, Netty deja de pedir líneas y se dejan de leer filas.
+     * limitRate acota cuántas se piden de una vez
+     */
+    @Override
+    public Flux<String> exportar(FormatoExportacion formato, boolean soloActivos) {
+        Flux<Producto> productos = (soloActivos
+                ? productoRepository.buscarActivosPorId()
+                : productoRepository.buscarTodosPorId())
+                .limitRate(filasPorPeticion);
+
+        if (formato == FormatoExportacion.CSV) {
+            return Flux.concat(Mono.just(CABECERA_CSV), productos.map(ProductoServiceImpl::lineaCsv));
+        }
+        return productos.map(this::lineaNdjson);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Producto> crear(Producto producto) {
+        LocalDateTime ahora = LocalDateTime.now();
+        // Sin versión es un alta (INSERT) aunque ya tenga id; la versión inicial la pone Spring Data
+        producto.setVersion(null);
+        producto.setNombreNormalizado(Producto.normalizarNombre(producto.getNombre()));
+        producto.setFechaCreacion(ahora);
+        producto.setFechaActualizacion(ahora);
+        return productoRepository.siguienteId().flatMap(id -> {
+            producto.setId(id);
+            return productoRepository.save(producto);
+        });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Producto> actualizar(Long id, Producto productoActualizado, Long versionEsperada) {
+        return obtenerParaModificar(id, versionEsperada).flatMap(producto -> {
+            producto.setNombre(productoActualizado.getNombre());
+            producto.setNombreNormalizado(Producto.normalizarNombre(productoActualizado.getNombre()));
+            producto.setDescripcion(productoActualizado.getDescripcion());
+            producto.setPrecio(productoActualizado.getPrecio());
+            producto.setStock(productoActualizado.getStock());
+            producto.setActivo(productoActualizado.getActivo());
+            producto.setFechaActualizacion(LocalDateTime.now());
+            return productoRepository.save(producto);
+        });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Producto> actualizarParcial(Long id, Map<String, Object> campos, Long versionEsperada) {
+        return parchear(id, versionEsperada, destino -> productoParcheador.aplicarCampos(destino, campos));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Producto> aplicarMergePatch(Long id, Map<String, Object> parche, Long versionEsperada) {
+        return parchear(id, versionEsperada, destino -> productoParcheador.aplicarMergePatch(destino, parche));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Producto> aplicarJsonPatch(Long id, List<OperacionPatch> operaciones, Long versionEsperada) {
+        return parchear(id, versionEsperada, destino -> productoParcheador.aplicarJsonPatch(destino, operaciones));
+    }
+
+    @Override
+    @Transactional
+    public Mono<StockActual> ajustarStock(Long id, int delta) {
+        return aplicarAjusteStock(id, delta, LocalDateTime.now()).map(stock -> new StockActual(id, stock));
+    }
+
+    @Override
+    @Transactional
+    public Mono<List<StockActual>> ajustarStockLote(List<AjusteStock> ajustes) {
+        // Igual que en la API servlet: un lote acotado como el multi-get
+        if (ajustes.size() > tamanioMaximoPagina) {
+            return Mono.error(new InvalidProductoException(
+                    "Se pueden ajustar como máximo " + tamanioMaximoPagina + " productos a la vez"));
+        }
+
+        // Se agrupan por id y se aplican en orden de id para evitar interbloqueos
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (AjusteStock ajuste : ajustes) {
+            if (ajuste == null || ajuste.getId() == null || ajuste.getDelta() == null) {
+                return Mono.error(new InvalidProductoException("Cada ajuste debe indicar id y delta"));
+            }
+            try {
+                deltas.merge(ajuste.getId(), ajuste.getDelta(), Math::addExact);
+            } catch (ArithmeticException e) {
+                return Mono.error(new InvalidProductoException(
+                        "La suma de los ajustes del producto " + ajuste.getId() + " excede el rango del stock"));
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        return Flux.fromIterable(deltas.entrySet())
+                .concatMap(ajuste -> aplicarAjusteStock(ajuste.getKey(), ajuste.getValue(), ahora)
+                        .map(stock -> new StockActual(ajuste.getKey(), stock)))
+                .collectList();
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> eliminar(Long id, Long versionEsperada) {
+        return obtenerParaModificar(id, versionEsperada).flatMap(producto -> {
+            producto.setActivo(false);
+            producto.setFechaActualizacion(LocalDateTime.now());
+            return productoRepository.save(producto);
+        }).then();
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> eliminarFisico(Long id, Long versionEsperada) {
+        return obtenerParaModificar(id, versionEsperada).flatMap(productoRepository::delete);
+    }
+
+    private Mono<Producto> obtenerParaModificar(Long id, Long versionEsperada) {
+        return obtenerPorId(id).handle((producto, sink) -> {
+            if (versionEsperada != null && !versionEsperada.equals(producto.getVersion())) {
+                sink.error(new PrecondicionFallidaException("El producto con ID " + id + " está en la versión "
+                        + producto.getVersion() + ", no en la " + versionEsperada));
+            } else {
+                sink.next(producto);
+            }
+        });
+    }
+
+    /**
+     * Los PATCH reutilizan ProductoParcheador de la API servlet, que trabaja
+     * sobre su modelo: se le pasa una copia de los campos modificables y el
+     * resultado se vuelve a copiar antes de validar y guardar
+     */
+    private Mono<Producto> parchear(Long id, Long versionEsperada,
+            Consumer<com.francisco.api.demo.model.Producto> parche) {
+        return obtenerParaModificar(id, versionEsperada).flatMap(producto -> {
+            com.francisco.api.demo.model.Producto destino = new com.francisco.api.demo.model.Producto();
+            destino.setNombre(producto.getNombre());
+            destino.setDescripcion(producto.getDescripcion());
+            destino.setPrecio(producto.getPrecio());
+            destino.setStock(producto.getStock());
+            destino.setActivo(producto.getActivo());
+            parche.accept(destino);
+
+            producto.setNombre(destino.getNombre());
+            producto.setNombreNormalizado(Producto.normalizarNombre(destino.getNombre()));
+            producto.setDescripcion(destino.getDescripcion());
+            producto.setPrecio(destino.getPrecio());
+            producto.setStock(destino.getStock());
+            producto.setActivo(destino.getActivo());
+            validar(producto);
+            producto.setFechaActualizacion(LocalDateTime.now());
+            return productoRepository.save(producto);
+        });
+    }
+
+    // Mismas restricciones que el @Valid del PUT, con el mensaje de InvalidProductoException
+    private void validar(Producto producto) {
+        Set<ConstraintViolation<Producto>> violaciones = validator.validate(producto);
+        if (!violaciones.isEmpty()) {
+            throw new InvalidProductoException(violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private Mono<Integer> aplicarAjusteStock(Long id, int delta, LocalDateTime fecha) {
+        return productoRepository.ajustarStock(id, delta, fecha)
+                .switchIfEmpty(Mono.defer(() -> productoRepository.buscarStock(id)
+                        .switchIfEmpty(Mono.error(() -> new ProductoNotFoundException(id)))
+                        .flatMap(disponible -> Mono.error(new InvalidProductoException(
+                                "Stock insuficiente para el producto con ID: " + id
+                                        + " (disponible: " + disponible + ")")))));
+    }
+
+    // Contenido y total en paralelo: dos consultas sin esperar una a la otra
+    private static Mono<Page<Producto>> pagina(Flux<Producto> contenido, Mono<Long> total, Pageable pageable) {
+        return Mono.zip(contenido.collectList(), total)
+                .map(resultado -> new PageImpl<>(resultado.getT1(), pageable, resultado.getT2()));
+    }
+
+    private String lineaNdjson(Producto producto) {
+        try {
+            return objectMapper.writeValueAsString(producto) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el producto " + producto.getId(), e);
+        }
+    }
+
+    private static String lineaCsv(Producto producto) {
+        return producto.getId() + ","
+                + campoCsv(producto.getNombre()) + ","
+                + campoCsv(producto.getDescripcion()) + ","
+                + producto.getPrecio().toPlainString() + ","
+                + producto.getStock() + ","
+                + producto.getFechaCreacion() + ","
+                + (producto.getFechaActualizacion() != null ? producto.getFechaActualizacion() : "") + ","
+                + producto.getActivo() + "\n";
+    }
+
+    // Escapa un campo de texto según RFC 4180, igual que la exportación servlet
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,47 @@
+package com.francisco.api.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * El cubo recibe el reloj por parámetro: los instantes son nanosegundos
+ * inventados, sin esperas reales
+ */
+class CuboTokensTests {
+
+	private static final long SEGUNDO = 1_000_000_000L;
+
+	@Test
+	void admiteUnaRafagaDeCapacidadYLuegoPideEsperar() {
+		// 10 por segundo: un token cada 100 ms
+		CuboTokens cubo = new CuboTokens(10, 3, 0);
+
+		assertThat(cubo.consumir(0)).isZero();
+		assertThat(cubo.consumir(0)).isZero();
+		assertThat(cubo.consumir(0)).isZero();
+		assertThat(cubo.consumir(0)).isEqualTo(SEGUNDO / 10);
+	}
+
+	@Test
+	void rechazarNoConsumeYElCuboSeRecargaConElTiempo() {
+		CuboTokens cubo = new CuboTokens(10, 1, 0);
+
+		assertThat(cubo.consumir(0)).isZero();
+		long espera = cubo.consumir(0);
+		assertThat(espera).isEqualTo(SEGUNDO / 10);
+		// El rechazo no adelanta la siguiente llegada: la espera solo se acorta
+		assertThat(cubo.consumir(SEGUNDO / 20)).isEqualTo(SEGUNDO / 20);
+		assertThat(cubo.consumir(espera)).isZero();
+	}
+
+	@Test
+	void laInactividadNoAcumulaMasQueLaCapacidad() {
+		CuboTokens cubo = new CuboTokens(10, 2, 0);
+
+		long despues = 60 * SEGUNDO;
+		assertThat(cubo.consumir(despues)).isZero();
+		assertThat(cubo.consumir(despues)).isZero();
+		assertThat(cubo.consumir(despues)).isPositive();
+	}
+}
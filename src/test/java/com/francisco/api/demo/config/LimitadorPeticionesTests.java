@@ -0,0 +1,84 @@
+package com.francisco.api.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Con límite de concurrencia 0 toda petición que pasa el cubo de tokens se
+ * descarta con 503; al agotarse la ráfaga de lectura (2) la siguiente recibe
+ * 429
+ */
+@SpringBootTest(properties = {
+	"productos.limites.enabled=true",
+	"spring.datasource.url=jdbc:h2:mem:limites;QUERY_CACHE_SIZE=64",
+	"productos.limites.lectura.tasa=0.1",
+	"productos.limites.lectura.rafaga=2",
+	"productos.limites.concurrencia.inicial=0",
+	"productos.limites.concurrencia.minimo=0",
+	"productos.limites.concurrencia.maximo=0"
+})
+@AutoConfigureMockMvc
+class LimitadorPeticionesTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void rechazaConRetryAfterPorConcurrenciaYLuegoPorTasa() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(get("/api/productos/1"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+					.andExpect(jsonPath("$.status").value(503));
+		}
+
+		String reintento = mockMvc.perform(get("/api/productos/1"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(jsonPath("$.status").value(429))
+				.andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+		// Un token cada 10 s
+		assertThat(Long.parseLong(reintento)).isBetween(1L, 10L);
+
+		// Otro endpoint tiene su propio cubo
+		mockMvc.perform(get("/api/productos/stats"))
+				.andExpect(status().isServiceUnavailable());
+	}
+
+	@Test
+	void concurrenciaSeReduceConLatenciaAltaYCreceConLaCarga() {
+		LimitadorConcurrencia limitador = new LimitadorConcurrencia(10, 2, 20, 0.5, Duration.ofMillis(100));
+
+		assertThat(limitador.adquirir()).isTrue();
+		limitador.liberar(Duration.ofSeconds(1).toNanos(), false);
+		assertThat(limitador.limite()).isEqualTo(5);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(limitador.adquirir()).isTrue();
+		}
+		assertThat(limitador.adquirir()).isFalse();
+
+		// Crece de a 1/límite por petición rápida mientras el uso es alto: una ventana llena no alcanza para sumar uno
+		for (int ventana = 0; ventana < 2; ventana++) {
+			while (limitador.adquirir()) {
+			}
+			int ocupados = limitador.enCurso();
+			for (int i = 0; i < ocupados; i++) {
+				limitador.liberar(Duration.ofMillis(1).toNanos(), false);
+			}
+		}
+		assertThat(limitador.limite()).isEqualTo(6);
+		assertThat(limitador.enCurso()).isZero();
+	}
+}
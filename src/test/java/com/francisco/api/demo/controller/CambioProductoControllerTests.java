@@ -0,0 +1,88 @@
+package com.francisco.api.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = {
+	"productos.limites.enabled=false",
+	// Base propia: cada contexto en caché tiene su despachador del outbox y el feed supone uno solo por base
+	"spring.datasource.url=jdbc:h2:mem:controladores;QUERY_CACHE_SIZE=64"
+})
+@AutoConfigureMockMvc
+class CambioProductoControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void feedEntregaLosCambiosDeUnProductoEnOrden() throws Exception {
+		long desde = ultimaPosicion();
+
+		String creado = mockMvc.perform(post("/api/productos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(ProductoControllerTests.producto(ProductoControllerTests.nombreUnico(), 2, 5)))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		long id = JsonPath.<Number>read(creado, "$.id").longValue();
+		mockMvc.perform(post("/api/productos/{id}/stock:adjust", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"delta\": -1}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(delete("/api/productos/{id}", id))
+				.andExpect(status().isOk());
+
+		// El despachador asigna las posiciones en segundo plano (productos.outbox.intervalo)
+		List<Map<String, Object>> cambios = new ArrayList<>();
+		long limite = System.currentTimeMillis() + 15_000;
+		while (cambios.size() < 3 && System.currentTimeMillis() < limite) {
+			Thread.sleep(200);
+			String feed = mockMvc.perform(get("/api/productos/changes?since={desde}&limite=1000", desde))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			cambios = JsonPath.read(feed, "$.cambios[?(@.productoId == " + id + ")]");
+		}
+
+		assertThat(cambios).extracting(cambio -> cambio.get("tipo"))
+				.containsExactly("CREADO", "ACTUALIZADO", "DESACTIVADO");
+		assertThat(cambios).extracting(cambio -> ((Number) cambio.get("versionProducto")).longValue())
+				.containsExactly(0L, 1L, 2L);
+		assertThat(cambios).extracting(cambio -> ((Number) cambio.get("posicion")).longValue())
+				.isSorted()
+				.doesNotHaveDuplicates()
+				.allMatch(posicion -> posicion > desde);
+	}
+
+	@Test
+	void sinceNegativoDevuelve400() throws Exception {
+		mockMvc.perform(get("/api/productos/changes?since=-1"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private long ultimaPosicion() throws Exception {
+		long desde = 0;
+		boolean tieneMas = true;
+		while (tieneMas) {
+			String feed = mockMvc.perform(get("/api/productos/changes?since={desde}&limite=1000", desde))
+					.andReturn().getResponse().getContentAsString();
+			desde = JsonPath.<Number>read(feed, "$.siguiente").longValue();
+			tieneMas = JsonPath.read(feed, "$.tieneMas");
+		}
+		return desde;
+	}
+}
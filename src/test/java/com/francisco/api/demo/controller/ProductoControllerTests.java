@@ -0,0 +1,244 @@
+package com.francisco.api.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = {
+	"productos.limites.enabled=false",
+	// Base propia: cada contexto en caché tiene su despachador del outbox y el feed supone uno solo por base
+	"spring.datasource.url=jdbc:h2:mem:controladores;QUERY_CACHE_SIZE=64"
+})
+@AutoConfigureMockMvc
+class ProductoControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void cursorRecorreElCatalogoSinRepetirNiSaltar() throws Exception {
+		List<Long> creados = List.of(crear(5), crear(5), crear(5));
+
+		List<Long> vistos = new ArrayList<>();
+		String cursor = null;
+		boolean tieneSiguiente = true;
+		while (tieneSiguiente) {
+			String url = "/api/productos/cursor?size=7" + (cursor != null ? "&after=" + cursor : "");
+			String cuerpo = mockMvc.perform(get(url))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			vistos.addAll(JsonPath.<List<Number>>read(cuerpo, "$.contenido[*].id").stream()
+					.map(Number::longValue)
+					.toList());
+			tieneSiguiente = JsonPath.read(cuerpo, "$.tieneSiguiente");
+			cursor = JsonPath.read(cuerpo, "$.siguienteCursor");
+		}
+
+		assertThat(vistos).isSorted().doesNotHaveDuplicates().containsAll(creados);
+	}
+
+	@Test
+	void cursorInvalidoDevuelve400() throws Exception {
+		mockMvc.perform(get("/api/productos/cursor?after=no-es-un-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void etagDevuelve304SinCambiosY412ConIfMatchViejo() throws Exception {
+		Long id = crear(5);
+
+		String etag = mockMvc.perform(get("/api/productos/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/productos/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(put("/api/productos/{id}", id)
+				.header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(producto(nombreUnico(), 3, 5)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+		mockMvc.perform(get("/api/productos/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(put("/api/productos/{id}", id)
+				.header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(producto(nombreUnico(), 4, 5)))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void getCondicionalDeUnIdInexistenteDevuelve404() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(get("/api/productos/{id}", Long.MAX_VALUE - 1).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+					.andExpect(status().isNotFound());
+		}
+	}
+
+	@Test
+	void ajusteDeStockEsCondicional() throws Exception {
+		Long id = crear(5);
+
+		mockMvc.perform(post("/api/productos/{id}/stock:adjust", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"delta\": -3}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.stock").value(2));
+
+		mockMvc.perform(post("/api/productos/{id}/stock:adjust", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"delta\": -3}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value(containsString("disponible: 2")));
+
+		mockMvc.perform(get("/api/productos/{id}", id))
+				.andExpect(jsonPath("$.stock").value(2))
+				.andExpect(jsonPath("$.version").value(1));
+
+		mockMvc.perform(post("/api/productos/{id}/stock:adjust", Long.MAX_VALUE)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"delta\": 1}"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void ajusteDeStockEnLoteEsTodoONada() throws Exception {
+		Long conStock = crear(10);
+		Long sinStock = crear(1);
+
+		mockMvc.perform(post("/api/productos/stock:adjust")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"id\": " + conStock + ", \"delta\": -4}, {\"id\": " + sinStock + ", \"delta\": -2}]"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/api/productos/{id}", conStock))
+				.andExpect(jsonPath("$.stock").value(10));
+
+		mockMvc.perform(post("/api/productos/stock:adjust")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"id\": " + conStock + ", \"delta\": -4}, {\"id\": " + sinStock + ", \"delta\": -1}]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[?(@.id == %d)].stock", conStock).value(contains(6)))
+				.andExpect(jsonPath("$[?(@.id == %d)].stock", sinStock).value(contains(0)));
+	}
+
+	@Test
+	void nombreRepetidoSinDistinguirMayusculasDevuelve400() throws Exception {
+		String nombre = nombreUnico();
+		crear(nombre, 5);
+
+		mockMvc.perform(post("/api/productos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(producto(nombre.toUpperCase(), 2, 1)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value("Ya existe un producto con ese nombre"));
+	}
+
+	@Test
+	void ajusteDeStockEnLoteRechazaLotesGrandesYDesbordes() throws Exception {
+		Long id = crear(5);
+
+		String grande = LongStream.rangeClosed(1, 101)
+				.mapToObj(i -> "{\"id\": " + i + ", \"delta\": 1}")
+				.collect(Collectors.joining(", ", "[", "]"));
+		mockMvc.perform(post("/api/productos/stock:adjust")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(grande))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value(containsString("como máximo 100")));
+
+		mockMvc.perform(post("/api/productos/stock:adjust")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"id\": " + id + ", \"delta\": " + Integer.MAX_VALUE + "}, {\"id\": " + id
+						+ ", \"delta\": " + Integer.MAX_VALUE + "}]"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value(containsString("excede el rango")));
+
+		mockMvc.perform(get("/api/productos/{id}", id))
+				.andExpect(jsonPath("$.stock").value(5));
+	}
+
+	@Test
+	void estadisticasReflejanCadaEscritura() throws Exception {
+		String antes = estadisticas();
+
+		Long id = crear(7);
+		String despuesDeCrear = estadisticas();
+		assertThat(numero(despuesDeCrear, "$.total")).isEqualTo(numero(antes, "$.total") + 1);
+		assertThat(numero(despuesDeCrear, "$.activos")).isEqualTo(numero(antes, "$.activos") + 1);
+		assertThat(numero(despuesDeCrear, "$.stockTotal")).isEqualTo(numero(antes, "$.stockTotal") + 7);
+
+		mockMvc.perform(post("/api/productos/{id}/stock:adjust", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"delta\": -2}"))
+				.andExpect(status().isOk());
+		assertThat(numero(estadisticas(), "$.stockTotal")).isEqualTo(numero(antes, "$.stockTotal") + 5);
+	}
+
+	@Test
+	void busquedaConPaginacionInvalidaDevuelve400() throws Exception {
+		mockMvc.perform(get("/api/productos/search?q=vol&page=-1")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/productos/search?q=vol&size=0")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/productos/search?q=vol&size=100000")).andExpect(status().isBadRequest());
+	}
+
+	private Long crear(int stock) throws Exception {
+		return crear(nombreUnico(), stock);
+	}
+
+	private Long crear(String nombre, int stock) throws Exception {
+		String cuerpo = mockMvc.perform(post("/api/productos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(producto(nombre, 2, stock)))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.<Number>read(cuerpo, "$.id").longValue();
+	}
+
+	private String estadisticas() throws Exception {
+		return mockMvc.perform(get("/api/productos/stats"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private static long numero(String json, String ruta) {
+		return JsonPath.<Number>read(json, ruta).longValue();
+	}
+
+	static String nombreUnico() {
+		return "Producto de prueba " + UUID.randomUUID();
+	}
+
+	static String producto(String nombre, int precio, int stock) {
+		return "{\"nombre\": \"" + nombre + "\", \"descripcion\": \"Creado por los tests\", \"precio\": " + precio
+				+ ", \"stock\": " + stock + ", \"activo\": true}";
+	}
+}
@@ -0,0 +1,115 @@
+package com.francisco.api.demo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = {
+	"productos.limites.enabled=false",
+	// Base propia: cada contexto en caché tiene su despachador del outbox y el feed supone uno solo por base
+	"spring.datasource.url=jdbc:h2:mem:controladores;QUERY_CACHE_SIZE=64"
+})
+@AutoConfigureMockMvc
+class ProductoLoteControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void altaEnLoteOmiteLosInvalidosYGuardaElResto() throws Exception {
+		String nombre = ProductoControllerTests.nombreUnico();
+		String lote = "[" + ProductoControllerTests.producto(nombre, 2, 5) + ", "
+				+ ProductoControllerTests.producto(nombre.toUpperCase(), 2, 5) + ", "
+				+ ProductoControllerTests.producto(ProductoControllerTests.nombreUnico(), -1, 5) + "]";
+
+		String respuesta = mockMvc.perform(post("/api/productos/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(lote))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(3))
+				.andExpect(jsonPath("$.exitosos").value(1))
+				.andExpect(jsonPath("$.fallidos").value(2))
+				.andExpect(jsonPath("$.resultados[0].estado").value("CREADO"))
+				.andExpect(jsonPath("$.resultados[1].estado").value("ERROR"))
+				.andExpect(jsonPath("$.resultados[2].estado").value("ERROR"))
+				.andExpect(jsonPath("$.resultados[2].mensaje").value("precio: El precio debe ser mayor a 0"))
+				.andReturn().getResponse().getContentAsString();
+
+		long id = JsonPath.<Number>read(respuesta, "$.resultados[0].id").longValue();
+		mockMvc.perform(get("/api/productos/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.nombre").value(nombre));
+	}
+
+	@Test
+	void actualizacionYBajaEnLoteInformanLosIdsInexistentes() throws Exception {
+		String creado = mockMvc.perform(post("/api/productos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(ProductoControllerTests.producto(ProductoControllerTests.nombreUnico(), 2, 5)))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		long id = JsonPath.<Number>read(creado, "$.id").longValue();
+
+		// Leído antes del lote: la caché no debe devolver la versión anterior
+		mockMvc.perform(get("/api/productos/{id}", id)).andExpect(jsonPath("$.stock").value(5));
+
+		String nombre = ProductoControllerTests.nombreUnico();
+		mockMvc.perform(put("/api/productos/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"id\": " + id + ", \"nombre\": \"" + nombre
+						+ "\", \"precio\": 3, \"stock\": 9, \"activo\": true}, {\"id\": " + Long.MAX_VALUE
+						+ ", \"nombre\": \"" + ProductoControllerTests.nombreUnico()
+						+ "\", \"precio\": 3, \"stock\": 9, \"activo\": true}]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.resultados[0].estado").value("ACTUALIZADO"))
+				.andExpect(jsonPath("$.resultados[1].estado").value("ERROR"));
+		mockMvc.perform(get("/api/productos/{id}", id))
+				.andExpect(jsonPath("$.nombre").value(nombre))
+				.andExpect(jsonPath("$.stock").value(9));
+
+		mockMvc.perform(delete("/api/productos/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + id + ", " + Long.MAX_VALUE + "]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.exitosos").value(1))
+				.andExpect(jsonPath("$.resultados[0].estado").value("ELIMINADO"))
+				.andExpect(jsonPath("$.resultados[1].estado").value("ERROR"));
+		mockMvc.perform(get("/api/productos/{id}", id))
+				.andExpect(jsonPath("$.activo").value(false));
+	}
+
+	@Test
+	void operacionesMasivasRechazanMasElementosQueElMaximo() throws Exception {
+		String ids = LongStream.rangeClosed(1, 10_001)
+				.mapToObj(Long::toString)
+				.collect(Collectors.joining(", ", "[", "]"));
+		mockMvc.perform(delete("/api/productos/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(ids))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value("Una operación masiva admite como máximo 10000 elementos"));
+
+		String lineas = LongStream.rangeClosed(1, 10_001)
+				.mapToObj(Long::toString)
+				.collect(Collectors.joining("\n"));
+		mockMvc.perform(delete("/api/productos/bulk")
+				.contentType("application/x-ndjson")
+				.content(lineas))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,144 @@
+package com.francisco.api.demo.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * El repositorio es un mock que se puede bloquear: así las cargas
+ * concurrentes coinciden en el tiempo sin depender de la velocidad de la base
+ */
+class CargadorProductosTests {
+
+	private final ProductoRepository repositorio = mock(ProductoRepository.class);
+	private final ExecutorService hilos = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void cerrar() {
+		hilos.shutdownNow();
+	}
+
+	@Test
+	void cargasSimultaneasDelMismoIdHacenUnaSolaConsulta() throws Exception {
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch soltar = new CountDownLatch(1);
+		when(repositorio.findById(1L)).thenAnswer(invocacion -> {
+			dentro.countDown();
+			soltar.await();
+			return Optional.of(producto(1L));
+		});
+		CargadorProductos cargador = cargador(Duration.ZERO, 100);
+
+		List<Future<Optional<Producto>>> resultados = new ArrayList<>();
+		resultados.add(hilos.submit(() -> cargador.cargar(1L)));
+		assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < 4; i++) {
+			resultados.add(hilos.submit(() -> cargador.cargar(1L)));
+		}
+		// Da tiempo a que las demás se unan a la carga en curso
+		Thread.sleep(100);
+		soltar.countDown();
+
+		for (Future<Optional<Producto>> resultado : resultados) {
+			assertThat(resultado.get(5, TimeUnit.SECONDS)).map(Producto::getId).contains(1L);
+		}
+		verify(repositorio, times(1)).findById(1L);
+	}
+
+	@Test
+	void cargasConcurrentesDeIdsDistintosSeAgrupanEnUnaConsultaIn() throws Exception {
+		// Una carga bloqueada mantiene otra en curso: el lote siguiente espera a llenarse
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch soltar = new CountDownLatch(1);
+		when(repositorio.findById(99L)).thenAnswer(invocacion -> {
+			dentro.countDown();
+			soltar.await();
+			return Optional.empty();
+		});
+		when(repositorio.findByIdIn(any())).thenAnswer(invocacion -> {
+			Collection<Long> ids = invocacion.getArgument(0);
+			return ids.stream().filter(id -> id != 4L).map(CargadorProductosTests::producto).toList();
+		});
+		CargadorProductos cargador = cargador(Duration.ofSeconds(10), 4);
+
+		Future<Optional<Producto>> bloqueada = hilos.submit(() -> cargador.cargar(99L));
+		assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+		List<Future<Optional<Producto>>> resultados = new ArrayList<>();
+		for (long id = 1; id <= 4; id++) {
+			long propio = id;
+			resultados.add(hilos.submit(() -> cargador.cargar(propio)));
+		}
+
+		// El lote se cierra al llenarse, mucho antes de la ventana de 10 s
+		for (int i = 0; i < 3; i++) {
+			assertThat(resultados.get(i).get(5, TimeUnit.SECONDS)).map(Producto::getId).contains(i + 1L);
+		}
+		assertThat(resultados.get(3).get(5, TimeUnit.SECONDS)).isEmpty();
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+		verify(repositorio, times(1)).findByIdIn(ids.capture());
+		assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+
+		soltar.countDown();
+		assertThat(bloqueada.get(5, TimeUnit.SECONDS)).isEmpty();
+	}
+
+	@Test
+	void sinConcurrenciaNoEsperaLaVentanaYUsaLaBusquedaPorClave() {
+		when(repositorio.findById(1L)).thenReturn(Optional.of(producto(1L)));
+		CargadorProductos cargador = cargador(Duration.ofSeconds(10), 100);
+
+		long inicio = System.nanoTime();
+		assertThat(cargador.cargar(1L)).isPresent();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(5));
+		verify(repositorio, times(0)).findByIdIn(any());
+	}
+
+	@Test
+	void unErrorSePropagaYNoQuedaLaCargaEnVuelo() {
+		when(repositorio.findById(1L))
+				.thenThrow(new IllegalStateException("base caída"))
+				.thenReturn(Optional.of(producto(1L)));
+		CargadorProductos cargador = cargador(Duration.ZERO, 100);
+
+		assertThatThrownBy(() -> cargador.cargar(1L)).isInstanceOf(IllegalStateException.class);
+		assertThat(cargador.cargar(1L)).isPresent();
+	}
+
+	private CargadorProductos cargador(Duration ventana, int tamanioMaximo) {
+		// El mock del gestor de transacciones deja que TransactionTemplate ejecute sin transacción real
+		return new CargadorProductos(repositorio, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+				ventana, tamanioMaximo);
+	}
+
+	private static Producto producto(Long id) {
+		return new Producto(id, "Producto " + id, "producto " + id, null, BigDecimal.ONE, 1, null, null, true, 0L);
+	}
+}
@@ -0,0 +1,111 @@
+package com.francisco.api.demo.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.francisco.api.demo.dto.OperacionPatch;
+import com.francisco.api.demo.exception.InvalidProductoException;
+import com.francisco.api.demo.model.Producto;
+
+class ProductoParcheadorTests {
+
+	private final ProductoParcheador parcheador = new ProductoParcheador();
+
+	@Test
+	void patchClasicoConvierteLosTiposYGuardaVacioParaTextoNulo() {
+		Producto producto = producto();
+		Map<String, Object> campos = new HashMap<>();
+		campos.put("precio", 12);
+		campos.put("stock", "7");
+		campos.put("activo", false);
+		campos.put("descripcion", null);
+
+		parcheador.aplicarCampos(producto, campos);
+
+		assertThat(producto.getPrecio()).isEqualByComparingTo("12");
+		assertThat(producto.getStock()).isEqualTo(7);
+		assertThat(producto.getActivo()).isFalse();
+		assertThat(producto.getDescripcion()).isEmpty();
+	}
+
+	@Test
+	void mergePatchBorraConNuloSoloLosCamposOpcionales() {
+		Producto producto = producto();
+		Map<String, Object> parche = new HashMap<>();
+		parche.put("descripcion", null);
+		parche.put("nombre", "Otro nombre");
+
+		parcheador.aplicarMergePatch(producto, parche);
+
+		assertThat(producto.getDescripcion()).isNull();
+		assertThat(producto.getNombre()).isEqualTo("Otro nombre");
+
+		Map<String, Object> sinPrecio = new HashMap<>();
+		sinPrecio.put("precio", null);
+		assertThatThrownBy(() -> parcheador.aplicarMergePatch(producto, sinPrecio))
+				.isInstanceOf(InvalidProductoException.class)
+				.hasMessageContaining("no puede ser nulo");
+	}
+
+	@Test
+	void jsonPatchAplicaLasOperacionesYFallaSiElTestNoCoincide() {
+		Producto producto = producto();
+
+		parcheador.aplicarJsonPatch(producto, List.of(
+				new OperacionPatch("test", "/precio", "10.0"),
+				new OperacionPatch("replace", "/stock", 3),
+				new OperacionPatch("remove", "/descripcion", null)));
+
+		assertThat(producto.getStock()).isEqualTo(3);
+		assertThat(producto.getDescripcion()).isNull();
+
+		assertThatThrownBy(() -> parcheador.aplicarJsonPatch(producto,
+				List.of(new OperacionPatch("test", "/stock", 4))))
+				.isInstanceOf(InvalidProductoException.class)
+				.hasMessageContaining("test falló");
+		assertThatThrownBy(() -> parcheador.aplicarJsonPatch(producto,
+				List.of(new OperacionPatch("move", "/stock", null))))
+				.isInstanceOf(InvalidProductoException.class);
+		assertThatThrownBy(() -> parcheador.aplicarJsonPatch(producto,
+				List.of(new OperacionPatch("replace", "/a/b", 1))))
+				.isInstanceOf(InvalidProductoException.class)
+				.hasMessageContaining("Ruta");
+	}
+
+	@Test
+	void losCamposProtegidosYDesconocidosSeRechazan() {
+		Producto producto = producto();
+
+		for (String campo : List.of("id", "version", "nombreNormalizado", "fechaCreacion", "fechaActualizacion")) {
+			assertThatThrownBy(() -> parcheador.aplicarCampos(producto, Map.of(campo, 1)))
+					.isInstanceOf(InvalidProductoException.class)
+					.hasMessageContaining("no se puede modificar");
+		}
+		assertThatThrownBy(() -> parcheador.aplicarCampos(producto, Map.of("color", "rojo")))
+				.isInstanceOf(InvalidProductoException.class)
+				.hasMessageContaining("no existe");
+		assertThatThrownBy(() -> parcheador.aplicarCampos(producto, Map.of("stock", "muchos")))
+				.isInstanceOf(InvalidProductoException.class)
+				.hasMessageContaining("valor inválido");
+		assertThat(producto.getId()).isEqualTo(1L);
+		assertThat(producto.getVersion()).isZero();
+	}
+
+	private static Producto producto() {
+		Producto producto = new Producto();
+		producto.setId(1L);
+		producto.setNombre("Producto");
+		producto.setDescripcion("Descripción");
+		producto.setPrecio(new BigDecimal("10.00"));
+		producto.setStock(5);
+		producto.setVersion(0L);
+		return producto;
+	}
+}
@@ -0,0 +1,164 @@
+package com.francisco.api.demo.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Perfil "shards": tres bases H2 con rangos de id de 1e9. Las altas se
+ * reparten por turnos, así que tres altas seguidas caen una en cada shard
+ */
+@SpringBootTest(properties = {
+	"productos.limites.enabled=false",
+	// testdb ya la crearon (sin Flyway) los contextos de los otros tests de la misma JVM
+	"spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64",
+	"productos.shards.replicas=jdbc:h2:mem:shard0;QUERY_CACHE_SIZE=64,jdbc:h2:mem:shard1;QUERY_CACHE_SIZE=64,"
+			+ "jdbc:h2:mem:shard2;QUERY_CACHE_SIZE=64"
+})
+@ActiveProfiles("shards")
+@AutoConfigureMockMvc
+class ProductoServiceShardsTests {
+
+	private static final long RANGO = 1_000_000_000L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void altasSeRepartenYCadaIdSeLeeDeSuShard() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			ids.add(crear(nombreUnico(), 5));
+		}
+
+		assertThat(ids.stream().map(id -> id / RANGO).distinct()).containsExactlyInAnyOrder(0L, 1L, 2L);
+		for (Long id : ids) {
+			mockMvc.perform(get("/api/productos/{id}", id))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.id").value(id));
+		}
+
+		mockMvc.perform(get("/api/productos/{id}", 3 * RANGO + 1)).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void listadosMezclanLosShardsEnOrden() throws Exception {
+		// Stock decreciente: el orden por stock es el inverso del de alta
+		List<Long> ids = new ArrayList<>();
+		for (int stock = 6; stock > 0; stock--) {
+			ids.add(crear(nombreUnico(), stock));
+		}
+
+		List<Long> listado = new ArrayList<>();
+		for (int pagina = 0; ; pagina++) {
+			String cuerpo = mockMvc.perform(get("/api/productos?page=" + pagina))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			List<Number> contenido = JsonPath.read(cuerpo, "$.content[*].id");
+			if (contenido.isEmpty()) {
+				break;
+			}
+			contenido.forEach(id -> listado.add(id.longValue()));
+		}
+		assertThat(listado).isSorted().doesNotHaveDuplicates().containsAll(ids);
+
+		String cuerpo = mockMvc.perform(get("/api/productos/stock-bajo?stockMinimo=6&limite=100"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<Map<String, Object>> stockBajo = JsonPath.read(cuerpo, "$");
+		assertThat(stockBajo)
+				.isSortedAccordingTo(Comparator.<Map<String, Object>>comparingInt(p -> ((Number) p.get("stock")).intValue())
+						.thenComparingLong(p -> ((Number) p.get("id")).longValue()));
+		assertThat(stockBajo.stream().map(p -> ((Number) p.get("id")).longValue()).toList())
+				.containsSubsequence(alReves(ids));
+	}
+
+	@Test
+	void paginasMasAllaDeLaProfundidadMaximaDevuelven400() throws Exception {
+		mockMvc.perform(get("/api/productos?page=100000"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value(containsString("/api/productos/cursor")));
+		mockMvc.perform(get("/api/productos?page=300000000")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/productos/stock-bajo?stockMinimo=6&page=100000&limite=100"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void loteVaAlShardDuenioYRespetaElNombreEnTodos() throws Exception {
+		String nombre = nombreUnico();
+		Long id = crear(nombre, 5);
+
+		String lote = "[" + producto(nombreUnico(), 2, 5) + ", " + producto(nombre.toUpperCase(), 2, 5) + ", "
+				+ producto(nombreUnico(), 2, 5) + ", " + producto(nombreUnico(), 2, 5) + "]";
+		String respuesta = mockMvc.perform(post("/api/productos/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(lote))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.exitosos").value(3))
+				.andExpect(jsonPath("$.resultados[*].indice").value(contains(0, 1, 2, 3)))
+				.andExpect(jsonPath("$.resultados[1].estado").value("ERROR"))
+				.andReturn().getResponse().getContentAsString();
+
+		List<Long> creados = new ArrayList<>();
+		for (int i : new int[] { 0, 2, 3 }) {
+			creados.add(JsonPath.<Number>read(respuesta, "$.resultados[" + i + "].id").longValue());
+		}
+		assertThat(creados.stream().map(c -> c / RANGO).distinct()).hasSize(3);
+
+		mockMvc.perform(delete("/api/productos/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + creados.get(2) + ", " + (3 * RANGO + 1) + ", " + id + "]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.exitosos").value(2))
+				.andExpect(jsonPath("$.resultados[0].id").value(creados.get(2)))
+				.andExpect(jsonPath("$.resultados[1].estado").value("ERROR"))
+				.andExpect(jsonPath("$.resultados[2].id").value(id));
+		mockMvc.perform(get("/api/productos/{id}", id)).andExpect(jsonPath("$.activo").value(false));
+	}
+
+	private Long crear(String nombre, int stock) throws Exception {
+		String cuerpo = mockMvc.perform(post("/api/productos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(producto(nombre, 2, stock)))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.<Number>read(cuerpo, "$.id").longValue();
+	}
+
+	private static List<Long> alReves(List<Long> ids) {
+		List<Long> copia = new ArrayList<>(ids);
+		Collections.reverse(copia);
+		return copia;
+	}
+
+	private static String nombreUnico() {
+		return "Producto de prueba " + UUID.randomUUID();
+	}
+
+	private static String producto(String nombre, int precio, int stock) {
+		return "{\"nombre\": \"" + nombre + "\", \"descripcion\": \"Creado por los tests\", \"precio\": " + precio
+				+ ", \"stock\": " + stock + ", \"activo\": true}";
+	}
+}
@@ -0,0 +1,70 @@
+package com.francisco.api.demo.service.memoria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.service.memoria.CachePaginas.PaginaSerializada;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachePaginasTests {
+
+	private final VersionCatalogo versionCatalogo = new VersionCatalogo();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CachePaginas cache = new CachePaginas(versionCatalogo, new ObjectMapper(), meterRegistry, 2);
+	private final AtomicInteger construidas = new AtomicInteger();
+
+	@Test
+	void sirveLaPaginaGuardadaMientrasNoCambieElCatalogo() throws IOException {
+		PaginaSerializada primera = cache.obtener("productos", 0, this::pagina);
+		PaginaSerializada segunda = cache.obtener("productos", 0, this::pagina);
+
+		assertThat(segunda).isSameAs(primera);
+		assertThat(construidas).hasValue(1);
+		assertThat(new String(primera.json())).isEqualTo("[\"a\",\"b\"]");
+		assertThat(new GZIPInputStream(new ByteArrayInputStream(primera.gzip())).readAllBytes())
+				.isEqualTo(primera.json());
+		assertThat(meterRegistry.counter("productos.cache.paginas", "resultado", "acierto").count()).isEqualTo(1);
+
+		// Otro listado con el mismo número de página no comparte entrada
+		cache.obtener("activos", 0, this::pagina);
+		assertThat(construidas).hasValue(2);
+	}
+
+	@Test
+	void unaEscrituraConfirmadaInvalidaLasPaginas() {
+		PaginaSerializada vieja = cache.obtener("productos", 1, this::pagina);
+		versionCatalogo.onProductoCambiado(new ProductoCambiadoEvent(ProductoCambiadoEvent.TipoCambio.CREADO, 1L,
+				null, null));
+
+		PaginaSerializada nueva = cache.obtener("productos", 1, this::pagina);
+
+		assertThat(nueva).isNotSameAs(vieja);
+		assertThat(nueva.version()).isEqualTo(vieja.version() + 1);
+		assertThat(construidas).hasValue(2);
+	}
+
+	@Test
+	void lasPaginasProfundasNoSeGuardanNiComprimen() {
+		PaginaSerializada primera = cache.obtener("productos", 2, this::pagina);
+		PaginaSerializada segunda = cache.obtener("productos", 2, this::pagina);
+
+		assertThat(primera.gzip()).isNull();
+		assertThat(segunda).isNotSameAs(primera);
+		assertThat(construidas).hasValue(2);
+	}
+
+	private List<String> pagina() {
+		construidas.incrementAndGet();
+		return List.of("a", "b");
+	}
+}
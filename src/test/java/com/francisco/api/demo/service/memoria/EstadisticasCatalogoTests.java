@@ -0,0 +1,79 @@
+package com.francisco.api.demo.service.memoria;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.dto.EstadisticasProductos;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+
+class EstadisticasCatalogoTests {
+
+	private static final int[] LIMITES = {0, 10, 50, 100};
+
+	private final ProductoRepository repositorio = mock(ProductoRepository.class);
+	private final EstadisticasCatalogo estadisticas =
+			new EstadisticasCatalogo(repositorio, new Shards(1, Long.MAX_VALUE, Runnable::run), LIMITES);
+
+	@Test
+	void cargaLosAgregadosDeLaBase() {
+		// precio, tramo, cantidad, activos, stock
+		when(repositorio.agregarPorPrecioYTramo(LIMITES)).thenReturn(List.of(
+				new Object[] {new BigDecimal("10.00"), 1, 2L, 2L, 10L},
+				new Object[] {new BigDecimal("30.50"), 4, 1L, 0L, 200L}));
+
+		estadisticas.cargar();
+		EstadisticasProductos resultado = estadisticas.obtener();
+
+		assertThat(resultado.getTotal()).isEqualTo(3);
+		assertThat(resultado.getActivos()).isEqualTo(2);
+		assertThat(resultado.getInactivos()).isEqualTo(1);
+		assertThat(resultado.getStockTotal()).isEqualTo(210);
+		assertThat(resultado.getValorInventario()).isEqualByComparingTo("6200.00");
+		assertThat(resultado.getPrecioMinimo()).isEqualByComparingTo("10.00");
+		assertThat(resultado.getPrecioMaximo()).isEqualByComparingTo("30.50");
+		assertThat(resultado.getPrecioPromedio()).isEqualByComparingTo("16.83");
+		assertThat(resultado.getDistribucionStock())
+				.containsExactly(entry("0", 0L), entry("1-10", 2L), entry("11-50", 0L), entry("51-100", 0L),
+						entry("101+", 1L));
+		assertThat(resultado.getUltimaReconciliacion()).isNotNull();
+	}
+
+	@Test
+	void losEventosRestanElEstadoAnteriorYSumanElNuevo() {
+		Producto creado = producto(1L, "5.00", 0, true);
+		estadisticas.onProductoCambiado(ProductoCambiadoEvent.creado(creado));
+		Producto caro = producto(2L, "99.99", 60, true);
+		estadisticas.onProductoCambiado(ProductoCambiadoEvent.creado(caro));
+
+		Producto actualizado = producto(1L, "7.00", 20, false);
+		estadisticas.onProductoCambiado(ProductoCambiadoEvent.desactivado(creado, actualizado));
+		EstadisticasProductos resultado = estadisticas.obtener();
+
+		assertThat(resultado.getTotal()).isEqualTo(2);
+		assertThat(resultado.getActivos()).isEqualTo(1);
+		assertThat(resultado.getStockTotal()).isEqualTo(80);
+		assertThat(resultado.getPrecioMinimo()).isEqualByComparingTo("7.00");
+		assertThat(resultado.getDistribucionStock()).containsEntry("0", 0L).containsEntry("11-50", 1L)
+				.containsEntry("51-100", 1L);
+
+		// El precio máximo sale del multiconjunto al borrar su único producto
+		estadisticas.onProductoCambiado(ProductoCambiadoEvent.eliminado(caro));
+		assertThat(estadisticas.obtener().getPrecioMaximo()).isEqualByComparingTo("7.00");
+		assertThat(estadisticas.obtener().getValorInventario()).isEqualByComparingTo("140.00");
+	}
+
+	private static Producto producto(Long id, String precio, int stock, boolean activo) {
+		return new Producto(id, "Producto " + id, "producto " + id, null, new BigDecimal(precio), stock, null, null,
+				activo, 0L);
+	}
+}
@@ -0,0 +1,114 @@
+package com.francisco.api.demo.service.memoria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+import com.francisco.api.demo.service.memoria.IndiceBusqueda.ResultadoBusqueda;
+
+/**
+ * El índice se llena con eventos, sin la carga inicial desde la base
+ */
+class IndiceBusquedaTests {
+
+	private final IndiceBusqueda indice = indice(1000);
+
+	@Test
+	void buscaPorPrefijoSinAcentosYExigeTodasLasPalabras() {
+		indexar(producto(1L, "Café de Colombia", "Tostado medio", true, 0L));
+		indexar(producto(2L, "Té verde", "Hojas de Japón", true, 0L));
+
+		assertThat(indice.buscar("CAFE", false, 0, 10).ids()).containsExactly(1L);
+		assertThat(indice.buscar("jap", false, 0, 10).ids()).containsExactly(2L);
+		assertThat(indice.buscar("cafe tos", false, 0, 10).ids()).containsExactly(1L);
+		assertThat(indice.buscar("cafe verde", false, 0, 10).ids()).isEmpty();
+		assertThat(indice.buscar("   ", false, 0, 10).total()).isZero();
+	}
+
+	@Test
+	void ordenaPorRelevanciaYPagina() {
+		// Exacto en el nombre > prefijo en el nombre > exacto en la descripción; a igual puntaje, menor id
+		indexar(producto(1L, "Lámpara", "Con mesa incluida", true, 0L));
+		indexar(producto(2L, "Mesas plegables", null, true, 0L));
+		indexar(producto(3L, "Mesa de roble", null, true, 0L));
+		indexar(producto(4L, "Mesa de pino", null, true, 0L));
+
+		assertThat(indice.buscar("mesa", false, 0, 10).ids()).containsExactly(3L, 4L, 2L, 1L);
+		ResultadoBusqueda segunda = indice.buscar("mesa", false, 1, 3);
+		assertThat(segunda.ids()).containsExactly(1L);
+		assertThat(segunda.total()).isEqualTo(4);
+		assertThat(segunda.totalExacto()).isTrue();
+	}
+
+	@Test
+	void losEventosActualizanElIndiceYDescartanVersionesAtrasadas() {
+		Producto original = producto(1L, "Silla gamer", null, true, 0L);
+		indexar(original);
+		Producto renombrado = producto(1L, "Sillón reclinable", null, true, 1L);
+		indice.onProductoCambiado(ProductoCambiadoEvent.actualizado(original, renombrado));
+		// Llega tarde el evento de la versión 0
+		indexar(original);
+
+		assertThat(indice.buscar("gamer", false, 0, 10).ids()).isEmpty();
+		assertThat(indice.buscar("sillon", false, 0, 10).ids()).containsExactly(1L);
+
+		Producto inactivo = producto(1L, "Sillón reclinable", null, false, 2L);
+		indice.onProductoCambiado(ProductoCambiadoEvent.desactivado(renombrado, inactivo));
+		assertThat(indice.buscar("sillon", true, 0, 10).ids()).isEmpty();
+		assertThat(indice.buscar("sillon", false, 0, 10).ids()).containsExactly(1L);
+
+		indice.onProductoCambiado(ProductoCambiadoEvent.eliminado(inactivo));
+		assertThat(indice.buscar("sillon", false, 0, 10).total()).isZero();
+	}
+
+	@Test
+	void unPrefijoComunCortaElConteoYLoMarcaComoCotaInferior() {
+		IndiceBusqueda acotado = indice(5);
+		for (long id = 1; id <= 20; id++) {
+			acotado.onProductoCambiado(ProductoCambiadoEvent.creado(producto(id, "Manga Vol. " + id, null, true, 0L)));
+		}
+
+		ResultadoBusqueda primera = acotado.buscar("vol", false, 0, 3);
+		assertThat(primera.ids()).hasSize(3);
+		assertThat(primera.total()).isEqualTo(5);
+		assertThat(primera.totalExacto()).isFalse();
+
+		// Una página más allá del tope amplía el recorrido hasta su final
+		ResultadoBusqueda profunda = acotado.buscar("vol", false, 2, 3);
+		assertThat(profunda.ids()).hasSize(3);
+		assertThat(profunda.total()).isEqualTo(9);
+
+		ResultadoBusqueda unica = acotado.buscar("manga 7", false, 0, 3);
+		assertThat(unica.ids()).containsExactly(7L);
+		assertThat(unica.totalExacto()).isTrue();
+	}
+
+	private void indexar(Producto producto) {
+		indice.onProductoCambiado(ProductoCambiadoEvent.creado(producto));
+	}
+
+	private static IndiceBusqueda indice(int maxCandidatos) {
+		return new IndiceBusqueda(mock(ProductoRepository.class), mock(PlatformTransactionManager.class),
+				new Shards(1, Long.MAX_VALUE, Runnable::run), maxCandidatos);
+	}
+
+	private static Producto producto(Long id, String nombre, String descripcion, boolean activo, long version) {
+		Producto producto = new Producto();
+		producto.setId(id);
+		producto.setNombre(nombre);
+		producto.setDescripcion(descripcion);
+		producto.setPrecio(BigDecimal.TEN);
+		producto.setStock(1);
+		producto.setActivo(activo);
+		producto.setVersion(version);
+		return producto;
+	}
+}
@@ -0,0 +1,91 @@
+package com.francisco.api.demo.service.memoria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.francisco.api.demo.config.Shards;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+import com.francisco.api.demo.repository.ProductoRepository;
+
+class IndiceStockBajoTests {
+
+	private final ProductoRepository repositorio = mock(ProductoRepository.class);
+	private final IndiceStockBajo indice = new IndiceStockBajo(repositorio,
+			new Shards(1, Long.MAX_VALUE, Runnable::run), new SyncTaskExecutor(), Duration.ofMinutes(1));
+
+	@BeforeEach
+	void configurar() {
+		ReflectionTestUtils.setField(indice, "umbral", 10);
+	}
+
+	@Test
+	void cargaLosProductosBajoElUmbralYLosDevuelvePorStockEId() {
+		when(repositorio.findByStockLessThanEqual(10)).thenReturn(List.of(
+				producto(3L, 5, 0L), producto(1L, 5, 0L), producto(2L, 0, 0L), producto(4L, 9, 0L)));
+
+		assertThat(indice.cubre(5)).isFalse();
+		indice.cargar();
+
+		assertThat(indice.cubre(10)).isTrue();
+		assertThat(indice.cubre(11)).isFalse();
+		assertThat(ids(indice.buscar(10, 0, 10))).containsExactly(2L, 1L, 3L, 4L);
+		assertThat(ids(indice.buscar(5, 0, 10))).containsExactly(2L, 1L, 3L);
+		assertThat(ids(indice.buscar(10, 1, 2))).containsExactly(3L, 4L);
+	}
+
+	@Test
+	void losCambiosDeStockEntranYSalenDelConjunto() {
+		Producto lleno = producto(1L, 50, 0L);
+		Producto bajo = producto(1L, 3, 1L);
+		indice.onProductoCambiado(ProductoCambiadoEvent.creado(lleno));
+		assertThat(indice.buscar(10, 0, 10)).isEmpty();
+
+		indice.onProductoCambiado(ProductoCambiadoEvent.actualizado(lleno, bajo));
+		assertThat(indice.buscar(10, 0, 10)).extracting(Producto::getStock).containsExactly(3);
+
+		Producto repuesto = producto(1L, 20, 2L);
+		indice.onProductoCambiado(ProductoCambiadoEvent.actualizado(bajo, repuesto));
+		assertThat(indice.buscar(10, 0, 10)).isEmpty();
+	}
+
+	@Test
+	void unEventoAtrasadoNoVuelveAAgregarUnProductoRepuestoNiBorrado() {
+		Producto bajo = producto(1L, 3, 1L);
+		Producto repuesto = producto(1L, 20, 2L);
+		indice.onProductoCambiado(ProductoCambiadoEvent.actualizado(bajo, repuesto));
+		// El evento de la versión 1 llega después del de la 2
+		indice.onProductoCambiado(ProductoCambiadoEvent.actualizado(producto(1L, 50, 0L), bajo));
+		assertThat(indice.buscar(10, 0, 10)).isEmpty();
+
+		Producto otro = producto(2L, 1, 4L);
+		indice.onProductoCambiado(ProductoCambiadoEvent.eliminado(otro));
+		indice.onProductoCambiado(ProductoCambiadoEvent.creado(otro));
+		assertThat(indice.buscar(10, 0, 10)).isEmpty();
+	}
+
+	private static List<Long> ids(List<Producto> productos) {
+		return productos.stream().map(Producto::getId).toList();
+	}
+
+	private static Producto producto(Long id, int stock, long version) {
+		Producto producto = new Producto();
+		producto.setId(id);
+		producto.setNombre("Producto " + id);
+		producto.setPrecio(BigDecimal.ONE);
+		producto.setStock(stock);
+		producto.setActivo(true);
+		producto.setVersion(version);
+		return producto;
+	}
+}
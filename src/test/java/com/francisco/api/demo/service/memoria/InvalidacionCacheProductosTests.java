@@ -0,0 +1,58 @@
+package com.francisco.api.demo.service.memoria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.francisco.api.demo.config.CacheConfig;
+import com.francisco.api.demo.event.ProductoCambiadoEvent;
+import com.francisco.api.demo.model.Producto;
+
+class InvalidacionCacheProductosTests {
+
+	private final CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.PRODUCTOS);
+	private final InvalidacionCacheProductos invalidacion =
+			new InvalidacionCacheProductos(cacheManager, Duration.ofMinutes(1));
+	private final Cache cache = cacheManager.getCache(CacheConfig.PRODUCTOS);
+
+	@Test
+	void cadaCambioDesalojaSoloSuId() {
+		invalidacion.guardar(producto(1L, 0L));
+		invalidacion.guardar(producto(2L, 0L));
+
+		invalidacion.onProductoCambiado(ProductoCambiadoEvent.actualizado(producto(1L, 0L), producto(1L, 1L)));
+
+		assertThat(cache.get(1L)).isNull();
+		assertThat(cache.get(2L, Producto.class)).extracting(Producto::getVersion).isEqualTo(0L);
+	}
+
+	@Test
+	void unaLecturaAtrasadaNoGuardaUnaVersionYaSuperada() {
+		// La lectura de la versión 0 termina después del commit de la 1
+		invalidacion.onProductoCambiado(ProductoCambiadoEvent.actualizado(producto(1L, 0L), producto(1L, 1L)));
+		invalidacion.guardar(producto(1L, 0L));
+		assertThat(cache.get(1L)).isNull();
+
+		invalidacion.guardar(producto(1L, 1L));
+		assertThat(cache.get(1L, Producto.class)).extracting(Producto::getVersion).isEqualTo(1L);
+	}
+
+	@Test
+	void unProductoBorradoNoVuelveALaCache() {
+		invalidacion.onProductoCambiado(ProductoCambiadoEvent.eliminado(producto(1L, 3L)));
+
+		invalidacion.guardar(producto(1L, 3L));
+
+		assertThat(cache.get(1L)).isNull();
+	}
+
+	private static Producto producto(Long id, long version) {
+		return new Producto(id, "Producto " + id, "producto " + id, null, BigDecimal.ONE, 1, null, null, true,
+				version);
+	}
+}